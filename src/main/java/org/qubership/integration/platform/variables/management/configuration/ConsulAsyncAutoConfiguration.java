@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.configuration;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual threads executor for asynchronous consul calls, blocking queries and parallel txn chunks.
+ * Waiting for consul does not occupy platform threads.
+ */
+@AutoConfiguration
+public class ConsulAsyncAutoConfiguration {
+
+    @Bean(name = "consulAsyncExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService consulAsyncExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("consul-async-", 0).factory());
+    }
+}
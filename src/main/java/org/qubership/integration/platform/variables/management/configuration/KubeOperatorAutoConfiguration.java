@@ -20,26 +20,53 @@
 import io.kubernetes.client.util.ClientBuilder;
 import io.kubernetes.client.util.credentials.AccessTokenAuthentication;
 import io.kubernetes.client.util.credentials.TokenFileAuthentication;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Protocol;
+import org.apache.commons.lang3.tuple.Pair;
 import org.qubership.integration.platform.variables.management.kubernetes.KubeOperator;
+import org.qubership.integration.platform.variables.management.kubernetes.KubeSecretsInformer;
+import org.qubership.integration.platform.variables.management.service.SecretService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 
 @Slf4j
 @AutoConfiguration
 public class KubeOperatorAutoConfiguration {
+    private static final String CONNECTION_POOL_METRICS_NAME = "kubernetes.client.pool";
+    private static final String DISPATCHER_QUEUED_METRIC = "kubernetes.client.dispatcher.queued";
+    private static final String DISPATCHER_RUNNING_METRIC = "kubernetes.client.dispatcher.running";
+
     private final String uri;
     private final String namespace;
     private final String token;
     private final String cert;
+    private final int listPageSize;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final Duration writeTimeout;
+    private final List<Protocol> protocols;
 
     @Autowired
     public KubeOperatorAutoConfiguration(
@@ -49,12 +76,24 @@ public KubeOperatorAutoConfiguration(
             @Value("${kubernetes.service-account.token}") String token,
             @Value("${kubernetes.service-account.cert}") String cert,
 
-            @Value("${kubernetes.cluster.token:#{null}}") Optional<String> devToken) {
+            @Value("${kubernetes.cluster.token:#{null}}") Optional<String> devToken,
+
+            @Value("${kubernetes.variables-secret.list-page-size}") int listPageSize,
+
+            @Value("${kubernetes.http-client.connect-timeout}") Duration connectTimeout,
+            @Value("${kubernetes.http-client.read-timeout}") Duration readTimeout,
+            @Value("${kubernetes.http-client.write-timeout}") Duration writeTimeout,
+            @Value("${kubernetes.http-client.protocols}") List<String> protocols) {
 
         this.uri = uri;
         this.namespace = namespace;
         this.token = devToken.orElse(token);
         this.cert = cert;
+        this.listPageSize = listPageSize;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.writeTimeout = writeTimeout;
+        this.protocols = parseProtocols(protocols);
     }
 
     /**
@@ -63,18 +102,14 @@ public KubeOperatorAutoConfiguration(
      */
     @Bean
     @ConditionalOnProperty(prefix = "kubernetes", name = "devmode", havingValue = "false", matchIfMissing = true)
-    public KubeOperator kubeOperator() {
+    public KubeOperator kubeOperator(
+            @Qualifier("kubeApiDispatcher") Dispatcher dispatcher,
+            @Qualifier("kubeApiConnectionPool") ConnectionPool connectionPool) {
         try {
             log.info("Creating KubernetesOperator bean in PROD mode");
 
-            ApiClient client = new ClientBuilder()
-                    .setVerifyingSsl(false)
-                    .setBasePath(uri)
-                    .setCertificateAuthority(Files.readAllBytes(Paths.get(cert)))
-                    .setAuthentication(new TokenFileAuthentication(token))
-                    .build();
-
-            return new KubeOperator(client, namespace);
+            return new KubeOperator(configureHttpClient(buildApiClient(), dispatcher, connectionPool),
+                    namespace, listPageSize);
         } catch (Exception e) {
             log.error("Invalid k8s cluster parameters, can't initialize k8s API. {}", e.getMessage());
             return new KubeOperator();
@@ -87,20 +122,141 @@ public KubeOperator kubeOperator() {
      */
     @Bean
     @ConditionalOnProperty(prefix = "kubernetes", name = "devmode", havingValue = "true")
-    public KubeOperator kubeOperatorDev() {
+    public KubeOperator kubeOperatorDev(
+            @Qualifier("kubeApiDispatcher") Dispatcher dispatcher,
+            @Qualifier("kubeApiConnectionPool") ConnectionPool connectionPool) {
         try {
             log.info("Creating KubernetesOperator bean in DEV mode");
 
-            ApiClient client = new ClientBuilder()
-                    .setVerifyingSsl(false)
-                    .setBasePath(uri)
-                    .setAuthentication(new AccessTokenAuthentication(token))
-                    .build();
-
-            return new KubeOperator(client, namespace);
+            return new KubeOperator(configureHttpClient(buildDevApiClient(), dispatcher, connectionPool),
+                    namespace, listPageSize);
         } catch (Exception e) {
             log.error("Invalid k8s cluster parameters, can't initialize k8s API. {}", e.getMessage());
             return new KubeOperator();
         }
     }
+
+    /**
+     * Informer uses a separate ApiClient, watch requests are held open by the API server
+     * and must not be limited by the read timeout of regular requests
+     */
+    @Bean(destroyMethod = "stop")
+    @ConditionalOnProperty(prefix = "kubernetes.secrets-informer", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public KubeSecretsInformer kubeSecretsInformer(
+            @Value("${kubernetes.devmode}") boolean devMode,
+            @Value("${kubernetes.variables-secret.label}") String kubeSecretsLabel,
+            @Value("${kubernetes.secrets-informer.resync-period}") Duration resyncPeriod,
+            @Qualifier("kubeApiDispatcher") Dispatcher dispatcher,
+            @Qualifier("kubeApiConnectionPool") ConnectionPool connectionPool) {
+        try {
+            ApiClient client = configureHttpClient(devMode ? buildDevApiClient() : buildApiClient(),
+                    dispatcher, connectionPool);
+            client.setReadTimeout(0);
+
+            KubeSecretsInformer informer = new KubeSecretsInformer(client, namespace,
+                    Pair.of(kubeSecretsLabel, SecretService.SECURED_SECRETS_LABEL_VALUE), resyncPeriod);
+            informer.start();
+            return informer;
+        } catch (Exception e) {
+            log.error("Invalid k8s cluster parameters, can't initialize secrets informer. {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Limits of concurrent async calls to the API server, calls above the limits wait in the dispatcher queue
+     */
+    @Bean("kubeApiDispatcher")
+    public Dispatcher kubeApiDispatcher(
+            @Value("${kubernetes.http-client.dispatcher.max-requests}") int maxRequests,
+            @Value("${kubernetes.http-client.dispatcher.max-requests-per-host}") int maxRequestsPerHost
+    ) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        return dispatcher;
+    }
+
+    @Bean(name = "kubeApiConnectionPool", destroyMethod = "evictAll")
+    public ConnectionPool kubeApiConnectionPool(
+            @Value("${kubernetes.http-client.connection-pool.max-idle-connections}") int maxIdleConnections,
+            @Value("${kubernetes.http-client.connection-pool.keep-alive}") Duration keepAlive
+    ) {
+        return new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Bean
+    public MeterBinder kubeApiConnectionPoolMetrics(
+            @Qualifier("kubeApiConnectionPool") ConnectionPool connectionPool,
+            @Value("${kubernetes.http-client.connection-pool.max-idle-connections}") int maxIdleConnections
+    ) {
+        return new OkHttpConnectionPoolMetrics(connectionPool, CONNECTION_POOL_METRICS_NAME, Tags.empty(),
+                maxIdleConnections);
+    }
+
+    @Bean
+    public MeterBinder kubeApiDispatcherMetrics(@Qualifier("kubeApiDispatcher") Dispatcher dispatcher) {
+        return registry -> {
+            Gauge.builder(DISPATCHER_QUEUED_METRIC, dispatcher, Dispatcher::queuedCallsCount)
+                    .description("Async calls to the kubernetes API waiting for the dispatcher limits")
+                    .register(registry);
+            Gauge.builder(DISPATCHER_RUNNING_METRIC, dispatcher, Dispatcher::runningCallsCount)
+                    .description("Async calls to the kubernetes API in flight")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Virtual threads executor for concurrent writes of multiple secrets,
+     * waiting for the API server does not occupy platform threads
+     */
+    @Bean(name = "kubeSecretsAsyncExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService kubeSecretsAsyncExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kube-secrets-async-", 0).factory());
+    }
+
+    /**
+     * Clients share the dispatcher and the connection pool, with HTTP/2 concurrent requests
+     * are multiplexed over a single connection to the API server
+     */
+    private ApiClient configureHttpClient(ApiClient client, Dispatcher dispatcher, ConnectionPool connectionPool) {
+        client.setHttpClient(client.getHttpClient().newBuilder()
+                .dispatcher(dispatcher)
+                .connectionPool(connectionPool)
+                .protocols(protocols)
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .writeTimeout(writeTimeout)
+                .build());
+        return client;
+    }
+
+    private static List<Protocol> parseProtocols(List<String> protocols) {
+        List<Protocol> parsedProtocols = new ArrayList<>();
+        for (String protocol : protocols) {
+            try {
+                parsedProtocols.add(Protocol.get(protocol.trim()));
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Unsupported kubernetes client protocol: " + protocol, e);
+            }
+        }
+        return parsedProtocols;
+    }
+
+    private ApiClient buildApiClient() throws IOException {
+        return new ClientBuilder()
+                .setVerifyingSsl(false)
+                .setBasePath(uri)
+                .setCertificateAuthority(Files.readAllBytes(Paths.get(cert)))
+                .setAuthentication(new TokenFileAuthentication(token))
+                .build();
+    }
+
+    private ApiClient buildDevApiClient() {
+        return new ClientBuilder()
+                .setVerifyingSsl(false)
+                .setBasePath(uri)
+                .setAuthentication(new AccessTokenAuthentication(token))
+                .build();
+    }
 }
@@ -14,35 +14,88 @@
  * limitations under the License.
  */
 
+
 package org.qubership.integration.platform.variables.management.configuration;
 
-import org.jetbrains.annotations.NotNull;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
-import org.springframework.http.client.BufferingClientHttpRequestFactory;
-import org.springframework.http.client.ClientHttpRequestFactory;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
-import java.util.function.Supplier;
-
+/**
+ * Pooled keep-alive http client for microservices calls (consul).
+ * Requests and responses are streamed, no buffering is applied.
+ */
 @AutoConfiguration
 public class RestTemplateAutoConfiguration {
+    private static final String POOL_METRICS_NAME = "restTemplateMS";
 
     @Bean("restTemplateMS")
     @ConditionalOnMissingBean
-    public RestTemplate restTemplateMSDev(RestTemplateBuilder builder) {
+    public RestTemplate restTemplateMSDev(
+            RestTemplateBuilder builder,
+            @Qualifier("restTemplateMSHttpClient") CloseableHttpClient httpClient
+    ) {
         return builder
-                .requestFactory(getClientHttpRequestFactorySupplier())
-                .setConnectTimeout(Duration.ofMillis(60_000))
-                .setReadTimeout(Duration.ofMillis(60_000))
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient))
+                .build();
+    }
+
+    @Bean(name = "restTemplateMSConnectionManager", destroyMethod = "close")
+    public PoolingHttpClientConnectionManager restTemplateMSConnectionManager(
+            @Value("${connection.maxTotal}") int maxTotal,
+            @Value("${connection.maxPerRoute}") int maxPerRoute,
+            @Value("${connection.connectTimeout}") long connectTimeout,
+            @Value("${connection.readTimeout}") long readTimeout,
+            @Value("${connection.timeToLive}") long timeToLive
+    ) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .setTimeToLive(TimeValue.ofMilliseconds(timeToLive))
+                        .build())
+                .build();
+    }
+
+    @Bean(name = "restTemplateMSHttpClient", destroyMethod = "close")
+    public CloseableHttpClient restTemplateMSHttpClient(
+            @Qualifier("restTemplateMSConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Value("${connection.connectionRequestTimeout}") long connectionRequestTimeout,
+            @Value("${connection.readTimeout}") long readTimeout,
+            @Value("${connection.idleEvictionTimeout}") long idleEvictionTimeout
+    ) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionTimeout))
                 .build();
     }
 
-    private static @NotNull Supplier<ClientHttpRequestFactory> getClientHttpRequestFactorySupplier() {
-        return () -> new BufferingClientHttpRequestFactory(new SimpleClientHttpRequestFactory());
+    @Bean
+    public MeterBinder restTemplateMSConnectionPoolMetrics(
+            @Qualifier("restTemplateMSConnectionManager") PoolingHttpClientConnectionManager connectionManager
+    ) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_METRICS_NAME);
     }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+
+/**
+ * Holds the latest common variables snapshot published by {@link CommonVariablesWatcher}.
+ * Readers get the snapshot only while the watcher is healthy and the snapshot is within the staleness bound,
+ * otherwise they are expected to read consul directly.
+ */
+@Slf4j
+@Component
+public class CommonVariablesCache {
+    private final AtomicReference<CommonVariablesSnapshot> snapshot = new AtomicReference<>();
+    private final boolean enabled;
+    private final long maxStalenessNanos;
+
+    private volatile boolean healthy;
+
+    @Autowired
+    public CommonVariablesCache(@Value("${consul.watch.enabled}") boolean enabled,
+                                @Value("${consul.watch.max-staleness}") Duration maxStaleness) {
+        this.enabled = enabled;
+        this.maxStalenessNanos = maxStaleness.toNanos();
+    }
+
+    public @Nullable CommonVariablesSnapshot getFreshSnapshot() {
+        if (!enabled || !healthy) {
+            return null;
+        }
+
+        CommonVariablesSnapshot current = snapshot.get();
+        return current != null && current.getAgeNanos() <= maxStalenessNanos ? current : null;
+    }
+
+    public @Nullable CommonVariablesSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    public void publish(CommonVariablesSnapshot newSnapshot) {
+        snapshot.set(newSnapshot);
+        healthy = true;
+    }
+
+    public void touch() {
+        snapshot.updateAndGet(current -> current == null ? null : current.touch());
+        healthy = true;
+    }
+
+    public void markUnhealthy() {
+        if (healthy) {
+            log.warn("Common variables snapshot is marked as unhealthy, reads fall back to consul");
+        }
+        healthy = false;
+    }
+
+    public void applyUpdates(Map<String, String> variables) {
+        snapshot.updateAndGet(current -> current == null ? null : current.withUpdates(variables));
+    }
+
+    public void applyDeletes(Collection<String> variablesNames) {
+        snapshot.updateAndGet(current -> current == null ? null : current.withoutKeys(variablesNames));
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of all common variables as of the given consul index.
+ * Index 0 means the consul index is unknown, e.g. after local changes that are not confirmed by the watcher yet.
+ */
+@Getter
+public class CommonVariablesSnapshot {
+    private final long index;
+    private final Map<String, String> variables;
+    private final long syncedAtNanos;
+
+    public CommonVariablesSnapshot(long index, Map<String, String> variables) {
+        this(index, Collections.unmodifiableMap(new HashMap<>(variables)), System.nanoTime());
+    }
+
+    private CommonVariablesSnapshot(long index, Map<String, String> variables, long syncedAtNanos) {
+        this.index = index;
+        this.variables = variables;
+        this.syncedAtNanos = syncedAtNanos;
+    }
+
+    public long getAgeNanos() {
+        return System.nanoTime() - syncedAtNanos;
+    }
+
+    /**
+     * Same variables confirmed by consul at the current moment
+     */
+    public CommonVariablesSnapshot touch() {
+        return new CommonVariablesSnapshot(index, variables, System.nanoTime());
+    }
+
+    public CommonVariablesSnapshot withUpdates(Map<String, String> updates) {
+        Map<String, String> result = new HashMap<>(variables);
+        updates.forEach((key, value) -> result.put(key, value == null ? "" : value));
+        return new CommonVariablesSnapshot(0, Collections.unmodifiableMap(result), syncedAtNanos);
+    }
+
+    public CommonVariablesSnapshot withoutKeys(Collection<String> keys) {
+        Map<String, String> result = new HashMap<>(variables);
+        keys.forEach(result::remove);
+        return new CommonVariablesSnapshot(0, Collections.unmodifiableMap(result), syncedAtNanos);
+    }
+}
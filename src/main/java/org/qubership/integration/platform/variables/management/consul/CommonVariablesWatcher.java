@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Long-polls common variables prefix using consul blocking queries
+ * and publishes the result to {@link CommonVariablesCache}
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "consul.watch", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CommonVariablesWatcher {
+    private static final String WATCHER_THREAD_NAME = "common-variables-watcher";
+
+    private final ConsulService consulService;
+    private final CommonVariablesCache cache;
+    private final String waitTimeout;
+    private final long retryDelayMillis;
+
+    private volatile boolean running;
+    private Thread watcherThread;
+
+    @Autowired
+    public CommonVariablesWatcher(ConsulService consulService,
+                                  CommonVariablesCache cache,
+                                  @Value("${consul.watch.wait}") Duration waitTimeout,
+                                  @Value("${consul.watch.retry-delay}") Duration retryDelay) {
+        this.consulService = consulService;
+        this.cache = cache;
+        this.waitTimeout = waitTimeout.toSeconds() + "s";
+        this.retryDelayMillis = retryDelay.toMillis();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        watcherThread = Thread.ofVirtual().name(WATCHER_THREAD_NAME).start(this::watch);
+        log.info("Common variables watcher started");
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+            watcherThread = null;
+        }
+    }
+
+    private void watch() {
+        long index = 0;
+        while (running) {
+            try {
+                Pair<Long, Map<String, String>> result = consulService.waitForCommonVariablesChanges(index, waitTimeout);
+                long newIndex = result.getLeft();
+
+                if (newIndex == index && cache.getSnapshot() != null) {
+                    cache.touch();
+                } else {
+                    cache.publish(new CommonVariablesSnapshot(newIndex, result.getRight()));
+                }
+
+                // Consul recommends resetting the index if it goes backwards and never blocking on zero index
+                index = newIndex < index ? 0 : Math.max(newIndex, 1);
+            } catch (KVNotFoundException kvnfe) {
+                cache.publish(new CommonVariablesSnapshot(0, Collections.emptyMap()));
+                index = 0;
+                pause();
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("Failed to watch common variables changes: {}", e.getMessage());
+                cache.markUnhealthy();
+                index = 0;
+                pause();
+            }
+        }
+        log.info("Common variables watcher stopped");
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(retryDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
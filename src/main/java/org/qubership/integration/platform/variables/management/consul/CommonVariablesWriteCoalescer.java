@@ -0,0 +1,190 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import lombok.extern.slf4j.Slf4j;
+import org.qubership.integration.platform.variables.management.model.consul.KVWriteStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Group commit of single common variable writes. Writes submitted within the window are flushed
+ * as one batch, each caller gets the result of its own write.
+ * <p>
+ * A key is written at most once per batch, later writes of the same key go to the next batch in submission order.
+ * If the batch fails, its writes are repeated one by one, so a failure is reported only to the callers it belongs to.
+ * Writes not flushed before {@link #stop()} are completed exceptionally.
+ */
+@Slf4j
+final class CommonVariablesWriteCoalescer {
+    private static final String FLUSHER_THREAD_NAME = "common-variables-write-coalescer";
+
+    private record PendingWrite(String key, String value, CompletableFuture<KVWriteStatus> result) {
+    }
+
+    private final Function<Map<String, String>, Map<String, KVWriteStatus>> batchWriter;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final List<PendingWrite> deferred = new ArrayList<>();
+    private final Thread flusher;
+
+    /**
+     * Guards the running flag, so a write is either enqueued before the final drain or rejected
+     */
+    private final Lock lifecycleLock = new ReentrantLock();
+    private volatile boolean running = true;
+
+    /**
+     * @param batchWriter writes all variables and returns status per variable
+     */
+    CommonVariablesWriteCoalescer(Function<Map<String, String>, Map<String, KVWriteStatus>> batchWriter,
+                                  Duration window,
+                                  int maxBatchSize) {
+        this.batchWriter = batchWriter;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+        this.flusher = Thread.ofVirtual().name(FLUSHER_THREAD_NAME).start(this::run);
+    }
+
+    CompletableFuture<KVWriteStatus> submit(String key, String value) {
+        PendingWrite write = new PendingWrite(key, value, new CompletableFuture<>());
+        lifecycleLock.lock();
+        try {
+            if (running) {
+                queue.add(write);
+                return write.result();
+            }
+        } finally {
+            lifecycleLock.unlock();
+        }
+        write.result().completeExceptionally(new ConsulException("Common variables write coalescer is stopped"));
+        return write.result();
+    }
+
+    void stop() {
+        lifecycleLock.lock();
+        try {
+            running = false;
+        } finally {
+            lifecycleLock.unlock();
+        }
+        flusher.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                flush(collectBatch());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        // running is already false, no write can be enqueued after the drain
+        List<PendingWrite> rejected = new ArrayList<>(deferred);
+        lifecycleLock.lock();
+        try {
+            queue.drainTo(rejected);
+        } finally {
+            lifecycleLock.unlock();
+        }
+        rejected.forEach(write -> write.result().completeExceptionally(
+                new ConsulException("Common variables write coalescer is stopped")));
+    }
+
+    /**
+     * Waits for the first write, then collects writes until the window expires or the batch is full.
+     * If interrupted, the collected writes are returned to the deferred ones to be rejected on stop.
+     */
+    private Collection<PendingWrite> collectBatch() throws InterruptedException {
+        List<PendingWrite> candidates = new ArrayList<>(deferred);
+        deferred.clear();
+        if (candidates.isEmpty()) {
+            candidates.add(queue.take());
+        }
+
+        Map<String, PendingWrite> batch = new LinkedHashMap<>();
+        candidates.forEach(write -> addOrDefer(batch, write));
+
+        long deadline = System.nanoTime() + windowNanos;
+        try {
+            while (batch.size() < maxBatchSize) {
+                long remainingNanos = deadline - System.nanoTime();
+                PendingWrite write = remainingNanos > 0 ? queue.poll(remainingNanos, TimeUnit.NANOSECONDS) : null;
+                if (write == null) {
+                    break;
+                }
+                addOrDefer(batch, write);
+            }
+        } catch (InterruptedException e) {
+            deferred.addAll(0, batch.values());
+            throw e;
+        }
+        return batch.values();
+    }
+
+    private void addOrDefer(Map<String, PendingWrite> batch, PendingWrite write) {
+        if (batch.size() >= maxBatchSize || batch.containsKey(write.key())) {
+            deferred.add(write);
+        } else {
+            batch.put(write.key(), write);
+        }
+    }
+
+    private void flush(Collection<PendingWrite> writes) {
+        Map<String, String> variables = new HashMap<>();
+        writes.forEach(write -> variables.put(write.key(), write.value()));
+
+        try {
+            Map<String, KVWriteStatus> statuses = batchWriter.apply(variables);
+            writes.forEach(write -> write.result().complete(statuses.get(write.key())));
+            return;
+        } catch (Exception e) {
+            if (writes.size() == 1) {
+                writes.forEach(write -> write.result().completeExceptionally(e));
+                return;
+            }
+            log.warn("Coalesced write of {} common variables failed, writing them one by one: {}",
+                    writes.size(), e.getMessage());
+        }
+
+        for (PendingWrite write : writes) {
+            try {
+                write.result().complete(
+                        batchWriter.apply(Collections.singletonMap(write.key(), write.value())).get(write.key()));
+            } catch (Exception e) {
+                write.result().completeExceptionally(e);
+            }
+        }
+    }
+}
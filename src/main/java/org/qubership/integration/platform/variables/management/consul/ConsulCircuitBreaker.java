@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Consecutive failures breaker. After the threshold is reached calls are rejected for the open duration,
+ * then a single probe call is let through, its outcome closes or reopens the breaker.
+ */
+@Slf4j
+final class ConsulCircuitBreaker {
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+
+    ConsulCircuitBreaker(int failureThreshold, long openDurationNanos) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDurationNanos;
+    }
+
+    synchronized boolean tryAcquirePermission() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos < openDurationNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                log.info("Consul circuit breaker is half-open, sending probe request");
+                return true;
+            default:
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("Consul circuit breaker is closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            log.warn("Consul circuit breaker is open for {} ms after {} consecutive failures",
+                    openDurationNanos / 1_000_000, consecutiveFailures);
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+        }
+        probeInFlight = false;
+    }
+
+    /**
+     * Releases the probe permission when the call outcome says nothing about consul health
+     */
+    synchronized void onIgnored() {
+        probeInFlight = false;
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
@@ -18,10 +18,9 @@
 
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.lang3.tuple.Pair;
-import org.qubership.integration.platform.variables.management.model.consul.txn.KVResponse;
 import org.qubership.integration.platform.variables.management.model.consul.txn.KeyResponse;
 import org.qubership.integration.platform.variables.management.model.consul.txn.request.TxnKVRequest;
 import org.qubership.integration.platform.variables.management.model.consul.txn.request.TxnRequest;
@@ -33,42 +32,117 @@
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.DefaultResponseErrorHandler;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 
 
 @Slf4j
 @Component
 public class ConsulClient {
-    public static final int MAX_TXN_SIZE = 64;
     public static final String CONSUL_TOKEN_HEADER = "X-Consul-Token";
     public static final String CONSUL_INDEX_HEADER = "X-Consul-Index";
+    public static final String CONSUL_LAST_CONTACT_HEADER = "X-Consul-LastContact";
+    public static final String CONSUL_KNOWN_LEADER_HEADER = "X-Consul-KnownLeader";
     public static final String CONSUL_KV_PATH = "/v1/kv";
     public static final String CONSUL_TXN_PATH = "/v1/txn";
     public static final String CONSUL_KV_QUERY_PARAMS = "?recurse={recurse}&index={index}&wait={wait}";
     public static final String CONSUL_KV_DELETE_PARAMS = "?recurse={recurse}";
+    public static final String CONSUL_KV_KEYS_PARAMS = "?keys&separator={separator}";
+    public static final String CONSUL_KEY_SEPARATOR = "/";
 
     private final String consulUrl;
 
     @Value("${consul.token}")
     private String consulToken;
 
+    /**
+     * Stale reads served by a server with a bigger leader last contact are repeated with default consistency
+     */
+    @Value("${consul.consistency.max-staleness}")
+    private Duration maxStaleness;
+
+    private static final ResponseErrorHandler READ_ERROR_HANDLER = new DefaultResponseErrorHandler();
+
     private final RestTemplate restTemplate;
 
+    /**
+     * Shares request factory, interceptors and converters with the rest template, used for reads where an absent key
+     * is an expected result rather than an error
+     */
+    private final RestClient restClient;
+    private final ConsulResilienceExecutor resilienceExecutor;
+    private final ConsulMetrics metrics;
+
+    private final ExecutorService asyncExecutor;
+
+    /**
+     * Bounds concurrent txn chunks of all batches, null if chunks are sent sequentially
+     */
+    private final Semaphore txnPermits;
+
+    private final TxnChunkPlanner txnChunkPlanner;
+
     @Autowired
     public ConsulClient(@Qualifier("restTemplateMS") RestTemplate restTemplate,
-                        @Value("${consul.url}") String consulUrl) {
+                        @Value("${consul.url}") String consulUrl,
+                        @Value("${consul.txn.parallelism}") int txnParallelism,
+                        @Value("${consul.txn.max-operations}") int txnMaxOperations,
+                        @Value("${consul.txn.max-payload-size}") DataSize txnMaxPayloadSize,
+                        ConsulResilienceExecutor resilienceExecutor,
+                        ConsulMetrics metrics,
+                        @Qualifier("consulAsyncExecutor") ExecutorService asyncExecutor) {
         this.restTemplate = restTemplate;
+        this.restClient = RestClient.create(restTemplate);
+        this.resilienceExecutor = resilienceExecutor;
+        this.metrics = metrics;
+        this.asyncExecutor = asyncExecutor;
         this.consulUrl = StringUtils.strip(consulUrl, "/");
+        this.txnPermits = txnParallelism > 1 ? new Semaphore(txnParallelism) : null;
+        this.txnChunkPlanner = new TxnChunkPlanner(txnMaxOperations, txnMaxPayloadSize.toBytes());
     }
 
     public List<KeyResponse> getKV(String key, boolean recurse) throws KVNotFoundException {
-        return waitForKVChanges(key, recurse, 0, "0").getRight();
+        return getKV(key, recurse, ConsulConsistencyMode.DEFAULT);
+    }
+
+    public List<KeyResponse> getKV(String key, boolean recurse, ConsulConsistencyMode mode) throws KVNotFoundException {
+        return findKV(key, recurse, mode).orElseThrow(ConsulClient::kvNotFound);
+    }
+
+    /**
+     * Same as {@link ConsulClient#getKV(String, boolean, ConsulConsistencyMode)}, absent key is returned as an empty result
+     */
+    public Optional<List<KeyResponse>> findKV(String key, boolean recurse, ConsulConsistencyMode mode) {
+        return readWithStalenessGuard(mode, readMode -> readKV(key, recurse, 0, "0", readMode))
+                .map(Pair::getRight);
+    }
+
+    public List<KeyResponse> getKVsInTransaction(List<String> keys) throws ConsulException {
+        return getKVsInTransaction(keys, ConsulConsistencyMode.DEFAULT);
     }
 
     /**
@@ -76,22 +150,52 @@ public List<KeyResponse> getKV(String key, boolean recurse) throws KVNotFoundExc
      *
      * @param keys path without leading slash (e.g. 'config/test/key')
      */
-    public List<KVResponse> getKVsInTransaction(List<String> keys) throws ConsulException {
-        return doTxnBatchedRequest(
-                keys.stream()
-                        .map(key -> new TxnRequest(
-                                TxnKVRequest.builder()
-                                        .verb(TxnVerb.GET)
-                                        .key(key)
-                                        .build()))
-                        .toList()
-        ).getResults().stream().map(TxnResponseResult::getKv).toList();
+    public List<KeyResponse> getKVsInTransaction(List<String> keys, ConsulConsistencyMode mode) throws ConsulException {
+        List<TxnRequest> request = keys.stream()
+                .map(key -> new TxnRequest(
+                        TxnKVRequest.builder()
+                                .verb(TxnVerb.GET)
+                                .key(key)
+                                .build()))
+                .toList();
+        return readWithStalenessGuard(mode, readMode -> doTxnBatchedRequest(request, readMode))
+                .getResults().stream().map(TxnResponseResult::getKv).toList();
+    }
+
+    /**
+     * Reads only the given keys in a txn. The get-tree verb is used, unlike get it does not fail the txn
+     * if a key does not exist, results of other keys with the same prefix are skipped.
+     *
+     * @param keys path without leading slash (e.g. 'config/test/key')
+     * @return ModifyIndex of the existing keys
+     */
+    public Map<String, Long> getModifyIndexesInTransaction(Set<String> keys) throws ConsulException {
+        List<TxnRequest> request = keys.stream()
+                .map(key -> new TxnRequest(
+                        TxnKVRequest.builder()
+                                .verb(TxnVerb.GET_TREE)
+                                .key(key)
+                                .build()))
+                .toList();
+        TxnResponse response = doTxnBatchedRequest(request);
+
+        Map<String, Long> modifyIndexes = new HashMap<>();
+        if (response.getResults() != null) {
+            for (TxnResponseResult result : response.getResults()) {
+                KeyResponse kv = result.getKv();
+                if (kv != null && keys.contains(kv.getKey())) {
+                    modifyIndexes.put(kv.getKey(), kv.getModifyIndex());
+                }
+            }
+        }
+        return modifyIndexes;
     }
 
     public void createOrUpdateKV(String key, Object value) {
         HttpEntity<Object> entity = new HttpEntity<>(value, buildCommonHeaders());
-        ResponseEntity<String> response = restTemplate.exchange(consulUrl + CONSUL_KV_PATH + key,
-                HttpMethod.PUT, entity, String.class);
+        ResponseEntity<String> response = resilienceExecutor.execute(ConsulOperation.PUT,
+                () -> restTemplate.exchange(consulUrl + CONSUL_KV_PATH + key,
+                        HttpMethod.PUT, entity, String.class));
 
         if (response.getStatusCode() != HttpStatus.OK) {
             log.error("Failed to create or update KV in consul, code: {}, body: {}",
@@ -120,11 +224,36 @@ public void createOrUpdateKVsInTransaction(Map<String, String> map) {
                 );
     }
 
+    /**
+     * Check-and-set update, each key is written only if its ModifyIndex is not changed.
+     * Atomicity is per chunk: a conflict rolls back only the chunk containing the key, other chunks
+     * of the request may already be applied.
+     *
+     * @param map          key/value mapping, key - path without a leading slash (e.g. 'config/test/key')
+     * @param modifyIndexes current ModifyIndex of the keys, absent keys are written only if they do not exist
+     * @throws TxnConflictException if any of the keys was modified concurrently, contains the keys not written
+     *                              if the request was split into chunks
+     */
+    public void casKVsInTransaction(Map<String, String> map, Map<String, Long> modifyIndexes) throws ConsulException {
+        doTxnBatchedRequest(
+                map.entrySet().stream()
+                        .map(entry -> new TxnRequest(
+                                TxnKVRequest.builder()
+                                        .verb(TxnVerb.CAS)
+                                        .key(entry.getKey())
+                                        .value(entry.getValue())
+                                        .index(modifyIndexes.getOrDefault(entry.getKey(), 0L))
+                                        .build()))
+                        .toList()
+        );
+    }
+
     public void deleteKV(String key, boolean recurse) {
         HttpEntity<Object> entity = new HttpEntity<>(buildCommonHeaders());
-        ResponseEntity<String> response = restTemplate.exchange(consulUrl + CONSUL_KV_PATH + key + CONSUL_KV_DELETE_PARAMS,
-                HttpMethod.DELETE, entity, String.class,
-                Map.of("recurse", recurse));
+        ResponseEntity<String> response = resilienceExecutor.execute(ConsulOperation.DELETE,
+                () -> restTemplate.exchange(consulUrl + CONSUL_KV_PATH + key + CONSUL_KV_DELETE_PARAMS,
+                        HttpMethod.DELETE, entity, String.class,
+                        Map.of("recurse", recurse)));
 
         if (response.getStatusCode() != HttpStatus.OK) {
             log.error("Failed to remove KEY in consul, code: {}, body: {}",
@@ -152,27 +281,185 @@ public void deleteKVsInTransaction(List<String> keys) {
         );
     }
 
+    /**
+     * Results of all chunks are merged in the order of requests
+     *
+     * @throws TxnBatchException if some of the chunks failed, contains keys of all operations that were not performed
+     * @throws TxnConflictException if the first failed chunk was rejected by a concurrent modification,
+     *                              contains keys of all operations that were not performed
+     */
     private TxnResponse doTxnBatchedRequest(List<TxnRequest> request) throws ConsulException {
-        if (request.size() <= MAX_TXN_SIZE) {
-            return doTxnRequest(request);
+        return doTxnBatchedRequest(request, ConsulConsistencyMode.DEFAULT);
+    }
+
+    /**
+     * Operations are split into chunks by consul.txn.max-operations and consul.txn.max-payload-size limits
+     *
+     * @param mode consistency of read-only txn, ignored by consul if txn contains writes
+     */
+    private TxnResponse doTxnBatchedRequest(List<TxnRequest> request, ConsulConsistencyMode mode)
+            throws ConsulException {
+        try {
+            List<List<TxnRequest>> chunks = txnChunkPlanner.plan(request);
+            if (chunks.size() <= 1) {
+                metrics.recordTxnChunks(getTxnOperation(request), 1);
+                return doTxnChunk(request, mode);
+            }
+
+            metrics.recordTxnChunks(getTxnOperation(request), chunks.size());
+            return txnPermits == null
+                    ? doTxnChunksSequentially(chunks, mode)
+                    : doTxnChunksInParallel(chunks, mode);
+        } catch (TxnBatchException e) {
+            if (e.getCause() instanceof TxnConflictException conflict) {
+                throw new TxnConflictException(e.getFailedKeys(), conflict);
+            }
+            throw e;
+        }
+    }
+
+    private TxnResponse doTxnChunksSequentially(List<List<TxnRequest>> chunks, ConsulConsistencyMode mode)
+            throws ConsulException {
+        TxnResponse result = new TxnResponse();
+        for (int i = 0; i < chunks.size(); i++) {
+            try {
+                result.merge(doTxnChunk(chunks.get(i), mode));
+            } catch (ConsulException e) {
+                throw toBatchException(e, chunks.get(i), chunks.subList(i + 1, chunks.size()));
+            }
         }
+        return result;
+    }
+
+    private TxnResponse doTxnChunksInParallel(List<List<TxnRequest>> chunks, ConsulConsistencyMode mode)
+            throws ConsulException {
+        List<CompletableFuture<TxnResponse>> futures = chunks.stream()
+                .map(chunk -> CompletableFuture.supplyAsync(() -> doTxnRequestWithPermit(chunk, mode), asyncExecutor))
+                .toList();
 
         TxnResponse result = new TxnResponse();
-        for (List<TxnRequest> txnRequests : ListUtils.partition(request, MAX_TXN_SIZE)) {
-            result.merge(doTxnRequest(txnRequests));
+        List<String> failedKeys = new ArrayList<>();
+        Throwable firstError = null;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                result.merge(futures.get(i).join());
+            } catch (CompletionException e) {
+                Throwable error = e.getCause() != null ? e.getCause() : e;
+                if (error instanceof TxnBatchException batchException) {
+                    failedKeys.addAll(batchException.getFailedKeys());
+                    error = batchException.getCause();
+                } else {
+                    failedKeys.addAll(getTxnKeys(List.of(chunks.get(i))));
+                }
+                if (firstError == null) {
+                    firstError = error;
+                }
+            }
+        }
+
+        if (!failedKeys.isEmpty()) {
+            throw new TxnBatchException(failedKeys, firstError);
         }
         return result;
     }
 
     /**
-     * Consul constraint - maximum {@link ConsulClient#MAX_TXN_SIZE} operations per txn request
+     * Chunk rejected by consul as too large is split in halves, halves are sent one after another
+     *
+     * @throws TxnBatchException if the chunk was applied partially
      */
-    private TxnResponse doTxnRequest(List<TxnRequest> request) throws ConsulException {
+    private TxnResponse doTxnChunk(List<TxnRequest> chunk, ConsulConsistencyMode mode) throws ConsulException {
+        try {
+            return doTxnRequest(chunk, mode);
+        } catch (TxnTooLargeException e) {
+            if (chunk.size() < 2) {
+                throw e;
+            }
+            txnChunkPlanner.onTooLarge(chunk, e.isTooManyOperations());
+        }
+
+        List<TxnRequest> firstHalf = chunk.subList(0, chunk.size() / 2);
+        List<TxnRequest> secondHalf = chunk.subList(chunk.size() / 2, chunk.size());
+        TxnResponse result = new TxnResponse();
+        try {
+            result.merge(doTxnChunk(firstHalf, mode));
+        } catch (ConsulException e) {
+            throw toBatchException(e, firstHalf, List.of(secondHalf));
+        }
+        try {
+            result.merge(doTxnChunk(secondHalf, mode));
+        } catch (ConsulException e) {
+            throw toBatchException(e, secondHalf, Collections.emptyList());
+        }
+        return result;
+    }
+
+    /**
+     * Not processed keys are the failed keys of partially applied chunk or all keys of the failed chunk,
+     * and all keys of the chunks that were not sent
+     */
+    private static TxnBatchException toBatchException(ConsulException e, List<TxnRequest> failedChunk,
+                                                      List<List<TxnRequest>> notSentChunks) {
+        List<String> failedKeys = new ArrayList<>();
+        Throwable cause = e;
+        if (e instanceof TxnBatchException batchException) {
+            failedKeys.addAll(batchException.getFailedKeys());
+            cause = batchException.getCause();
+        } else {
+            failedKeys.addAll(getTxnKeys(List.of(failedChunk)));
+        }
+        failedKeys.addAll(getTxnKeys(notSentChunks));
+        return new TxnBatchException(failedKeys, cause);
+    }
+
+    private static List<String> getTxnKeys(List<List<TxnRequest>> chunks) {
+        return chunks.stream()
+                .flatMap(List::stream)
+                .map(txnRequest -> txnRequest.getKv().getKey())
+                .toList();
+    }
+
+    private TxnResponse doTxnRequestWithPermit(List<TxnRequest> request, ConsulConsistencyMode mode)
+            throws ConsulException {
+        try {
+            txnPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConsulException("Interrupted while waiting for consul txn permit", e);
+        }
+
+        try {
+            return doTxnChunk(request, mode);
+        } finally {
+            txnPermits.release();
+        }
+    }
+
+    /**
+     * Consul constraint - txn request is limited by operations count and payload size, see {@link TxnChunkPlanner}
+     */
+    private TxnResponse doTxnRequest(List<TxnRequest> request, ConsulConsistencyMode mode) throws ConsulException {
+        return resilienceExecutor.execute(getTxnOperation(request), () -> sendTxnRequest(request, mode));
+    }
+
+    private static ConsulOperation getTxnOperation(List<TxnRequest> request) {
+        if (request.isEmpty()) {
+            return ConsulOperation.TXN_SET;
+        }
+        return switch (request.get(0).getKv().getVerb()) {
+            case GET, GET_TREE -> ConsulOperation.TXN_GET;
+            case CAS -> ConsulOperation.TXN_CAS;
+            case DELETE -> ConsulOperation.TXN_DELETE;
+            default -> ConsulOperation.TXN_SET;
+        };
+    }
+
+    private TxnResponse sendTxnRequest(List<TxnRequest> request, ConsulConsistencyMode mode) throws ConsulException {
         ResponseEntity<TxnResponse> response = null;
         try {
             HttpEntity<List<TxnRequest>> entity = new HttpEntity<>(request, buildCommonHeaders());
             response = restTemplate.exchange(
-                    consulUrl + CONSUL_TXN_PATH, HttpMethod.PUT, entity, new ParameterizedTypeReference<>() {});
+                    mode.appendTo(consulUrl + CONSUL_TXN_PATH), HttpMethod.PUT, entity, new ParameterizedTypeReference<>() {});
             if (response.getStatusCode() != HttpStatus.OK) {
                 log.error("Failed to complete txn consul request, code: {}, body: {}",
                         response.getStatusCode(), response.getBody());
@@ -181,15 +468,32 @@ private TxnResponse doTxnRequest(List<TxnRequest> request) throws ConsulExceptio
             if (response.getBody().getErrors() != null) {
                 throw new RuntimeException("Failed to complete txn consul request, response have errors");
             }
+            checkStaleness(mode, response.getHeaders());
+            metrics.recordResponse(getTxnOperation(request), response.getHeaders().getContentLength(),
+                    response.getBody().getResults() == null ? 0 : response.getBody().getResults().size());
             return response.getBody();
         } catch (HttpClientErrorException hcee) {
             if (hcee.getStatusCode() == HttpStatus.CONFLICT) {
                 log.error("Consul txn request failed with code 409 conflict: {}", hcee.getMessage());
                 throw new TxnConflictException("Consul txn request failed with code 409 conflict", hcee);
+            } else if (isTxnTooLarge(hcee)) {
+                log.warn("Consul txn request with {} operations is too large: {}", request.size(), hcee.getMessage());
+                throw new TxnTooLargeException("Consul txn request is too large",
+                        StringUtils.containsIgnoreCase(hcee.getResponseBodyAsString(), "too many operations"), hcee);
             } else {
                 log.error("Consul txn request failed with http error", hcee);
                 throw new ConsulException("Consul txn request failed with http error", hcee);
             }
+        } catch (HttpServerErrorException hsee) {
+            if (isTxnTooLarge(hsee)) {
+                log.warn("Consul txn request with {} operations is too large: {}", request.size(), hsee.getMessage());
+                throw new TxnTooLargeException("Consul txn request is too large",
+                        StringUtils.containsIgnoreCase(hsee.getResponseBodyAsString(), "too many operations"), hsee);
+            }
+            log.error("Consul txn request failed", hsee);
+            throw new ConsulException("Consul txn request failed", hsee);
+        } catch (ConsulStaleReadException e) {
+            throw e;
         } catch (Exception e) {
             String errorMessage = "Consul txn request failed";
             if (response != null && response.getBody() != null && response.getBody().getErrors() != null) {
@@ -200,33 +504,247 @@ private TxnResponse doTxnRequest(List<TxnRequest> request) throws ConsulExceptio
         }
     }
 
+    private static boolean isTxnTooLarge(HttpStatusCodeException e) {
+        String body = e.getResponseBodyAsString();
+        return e.getStatusCode() == HttpStatus.PAYLOAD_TOO_LARGE
+                || StringUtils.containsIgnoreCase(body, "too large")
+                || StringUtils.containsIgnoreCase(body, "too many operations");
+    }
+
     public Pair<Long, List<KeyResponse>> waitForKVChanges(String key, boolean recurse, long index, String waitTimeout) throws KVNotFoundException {
-        HttpEntity<Object> entity = new HttpEntity<>(buildCommonHeaders());
-        try {
-            ResponseEntity<List<KeyResponse>> response = restTemplate.exchange(consulUrl + CONSUL_KV_PATH + key + CONSUL_KV_QUERY_PARAMS,
-                    HttpMethod.GET, entity, new ParameterizedTypeReference<>() {
-                    },
-                    Map.of("recurse", recurse,
-                            "index", index,
-                            "wait", waitTimeout));
+        return readKV(key, recurse, index, waitTimeout, ConsulConsistencyMode.DEFAULT)
+                .orElseThrow(ConsulClient::kvNotFound);
+    }
 
-            if (response.getStatusCode() != HttpStatus.OK) {
-                log.error("Failed to get KV from consul, code: {}, body: {}",
-                        response.getStatusCode(), response.getBody());
-                throw new RuntimeException("Failed to get KV from consul, response with non 200 code");
-            }
+    private Optional<Pair<Long, List<KeyResponse>>> readKV(String key, boolean recurse, long index, String waitTimeout,
+                                                           ConsulConsistencyMode mode) {
+        ConsulOperation operation = getReadOperation(index);
+        return resilienceExecutor.execute(operation, () -> restClient.get()
+                .uri(mode.appendTo(consulUrl + CONSUL_KV_PATH + key + CONSUL_KV_QUERY_PARAMS),
+                        Map.of("recurse", recurse,
+                                "index", index,
+                                "wait", waitTimeout))
+                .headers(headers -> headers.putAll(buildCommonHeaders()))
+                .exchange((request, response) -> {
+                    if (response.getStatusCode() == HttpStatus.NOT_FOUND) {
+                        return Optional.<Pair<Long, List<KeyResponse>>>empty();
+                    }
+                    checkReadResponse(request, response);
 
-            return Pair.of(
-                    Long.parseLong(response.getHeaders().get(CONSUL_INDEX_HEADER).get(0)),
-                    response.getBody() == null ? Collections.emptyList() : response.getBody());
-        } catch (HttpClientErrorException hcee) {
-            if (hcee.getStatusCode() == HttpStatus.NOT_FOUND) {
-                throw new KVNotFoundException("KV not present in consul");
+                    checkStaleness(mode, response.getHeaders());
+                    List<KeyResponse> body = response.bodyTo(new ParameterizedTypeReference<List<KeyResponse>>() {
+                    });
+                    if (body == null) {
+                        body = Collections.emptyList();
+                    }
+                    metrics.recordResponse(operation, response.getHeaders().getContentLength(), body.size());
+                    return Optional.of(Pair.of(
+                            Long.parseLong(response.getHeaders().getFirst(CONSUL_INDEX_HEADER)),
+                            body));
+                }));
+    }
+
+    /**
+     * Lists key names without values using consul 'keys' and 'separator' query parameters
+     *
+     * @param prefix path with leading slash (e.g. '/config/test')
+     * @return names of the keys on the first level under the prefix, nested folders are skipped
+     */
+    public List<String> getL1Keys(String prefix) throws KVNotFoundException {
+        return getL1Keys(prefix, ConsulConsistencyMode.DEFAULT);
+    }
+
+    public List<String> getL1Keys(String prefix, ConsulConsistencyMode mode) throws KVNotFoundException {
+        return findL1Keys(prefix, mode).orElseThrow(ConsulClient::kvNotFound);
+    }
+
+    public Optional<List<String>> findL1Keys(String prefix, ConsulConsistencyMode mode) {
+        return readWithStalenessGuard(mode, readMode -> readL1Keys(prefix, readMode));
+    }
+
+    private Optional<List<String>> readL1Keys(String prefix, ConsulConsistencyMode mode) {
+        String folder = StringUtils.appendIfMissing(prefix, CONSUL_KEY_SEPARATOR);
+        String basePath = StringUtils.removeStart(folder, CONSUL_KEY_SEPARATOR);
+        return resilienceExecutor.execute(ConsulOperation.KEYS, () -> restClient.get()
+                .uri(mode.appendTo(consulUrl + CONSUL_KV_PATH + folder + CONSUL_KV_KEYS_PARAMS),
+                        Map.of("separator", CONSUL_KEY_SEPARATOR))
+                .headers(headers -> headers.putAll(buildCommonHeaders()))
+                .exchange((request, response) -> {
+                    if (response.getStatusCode() == HttpStatus.NOT_FOUND) {
+                        return Optional.<List<String>>empty();
+                    }
+                    checkReadResponse(request, response);
+
+                    checkStaleness(mode, response.getHeaders());
+                    List<String> body = response.bodyTo(new ParameterizedTypeReference<List<String>>() {
+                    });
+                    if (body == null) {
+                        body = Collections.emptyList();
+                    }
+                    metrics.recordResponse(ConsulOperation.KEYS, response.getHeaders().getContentLength(), body.size());
+                    return Optional.of(body.stream()
+                            .filter(key -> key.length() > basePath.length()
+                                    && key.startsWith(basePath)
+                                    && !key.endsWith(CONSUL_KEY_SEPARATOR))
+                            .map(key -> key.substring(basePath.length()))
+                            .toList());
+                }));
+    }
+
+    /**
+     * Same as {@link ConsulClient#waitForL1KVChanges(String, long, String)} without waiting
+     */
+    public Pair<Long, Map<String, String>> getL1KVs(String prefix) throws KVNotFoundException {
+        return getL1KVs(prefix, ConsulConsistencyMode.DEFAULT);
+    }
+
+    public Pair<Long, Map<String, String>> getL1KVs(String prefix, ConsulConsistencyMode mode) throws KVNotFoundException {
+        return findL1KVs(prefix, mode).orElseThrow(ConsulClient::kvNotFound);
+    }
+
+    public Optional<Pair<Long, Map<String, String>>> findL1KVs(String prefix, ConsulConsistencyMode mode) {
+        return readWithStalenessGuard(mode,
+                readMode -> readRecursiveKV(prefix, 0, "0", readMode, KVStreamReader::readL1Values));
+    }
+
+    /**
+     * Recursive read of the prefix, response is decoded in a streaming manner
+     *
+     * @param prefix path with leading slash (e.g. '/config/test')
+     * @return consul index and decoded values of the keys on the first level under the prefix
+     */
+    public Pair<Long, Map<String, String>> waitForL1KVChanges(String prefix, long index, String waitTimeout)
+            throws KVNotFoundException {
+        return readRecursiveKV(prefix, index, waitTimeout, ConsulConsistencyMode.DEFAULT, KVStreamReader::readL1Values)
+                .orElseThrow(ConsulClient::kvNotFound);
+    }
+
+    public CompletableFuture<List<KeyResponse>> getKVsInTransactionAsync(List<String> keys, ConsulConsistencyMode mode) {
+        return CompletableFuture.supplyAsync(() -> getKVsInTransaction(keys, mode), asyncExecutor);
+    }
+
+    public CompletableFuture<Void> createOrUpdateKVsInTransactionAsync(Map<String, String> map) {
+        return CompletableFuture.runAsync(() -> createOrUpdateKVsInTransaction(map), asyncExecutor);
+    }
+
+    public CompletableFuture<Void> casKVsInTransactionAsync(Map<String, String> map, Map<String, Long> modifyIndexes) {
+        return CompletableFuture.runAsync(() -> casKVsInTransaction(map, modifyIndexes), asyncExecutor);
+    }
+
+    public CompletableFuture<Void> deleteKVsInTransactionAsync(List<String> keys) {
+        return CompletableFuture.runAsync(() -> deleteKVsInTransaction(keys), asyncExecutor);
+    }
+
+    public CompletableFuture<Pair<Long, List<KeyResponse>>> waitForKVChangesAsync(String key, boolean recurse,
+                                                                                  long index, String waitTimeout) {
+        return CompletableFuture.supplyAsync(() -> waitForKVChanges(key, recurse, index, waitTimeout), asyncExecutor);
+    }
+
+    public CompletableFuture<Pair<Long, Map<String, String>>> getL1KVsAsync(String prefix, ConsulConsistencyMode mode) {
+        return CompletableFuture.supplyAsync(() -> getL1KVs(prefix, mode), asyncExecutor);
+    }
+
+    /**
+     * Blocking query is executed on a virtual thread, the future is completed with {@link KVNotFoundException}
+     * if the prefix is not present in consul
+     */
+    public CompletableFuture<Pair<Long, Map<String, String>>> waitForL1KVChangesAsync(String prefix, long index,
+                                                                                     String waitTimeout) {
+        return CompletableFuture.supplyAsync(() -> waitForL1KVChanges(prefix, index, waitTimeout), asyncExecutor);
+    }
+
+    /**
+     * 404 is reported as an empty result without raising an exception
+     */
+    private <T extends Map<String, ?>> Optional<Pair<Long, T>> readRecursiveKV(String prefix, long index,
+                                                                                String waitTimeout,
+                                                                                ConsulConsistencyMode mode,
+                                                                                KVBodyReader<T> bodyReader) {
+        String basePath = StringUtils.appendIfMissing(StringUtils.removeStart(prefix, CONSUL_KEY_SEPARATOR), CONSUL_KEY_SEPARATOR);
+        ConsulOperation operation = getReadOperation(index);
+        return resilienceExecutor.execute(operation, () -> restClient.get()
+                .uri(mode.appendTo(consulUrl + CONSUL_KV_PATH + prefix + CONSUL_KV_QUERY_PARAMS),
+                        Map.of("recurse", true,
+                                "index", index,
+                                "wait", waitTimeout))
+                .headers(headers -> headers.putAll(buildCommonHeaders()))
+                .exchange((request, response) -> {
+                    if (response.getStatusCode() == HttpStatus.NOT_FOUND) {
+                        return Optional.<Pair<Long, T>>empty();
+                    }
+                    checkReadResponse(request, response);
+
+                    checkStaleness(mode, response.getHeaders());
+                    CountingInputStream body = new CountingInputStream(response.getBody());
+                    T result = bodyReader.read(body, basePath);
+                    metrics.recordResponse(operation, body.getCount(), result.size());
+                    return Optional.of(Pair.of(
+                            Long.parseLong(response.getHeaders().getFirst(CONSUL_INDEX_HEADER)),
+                            result));
+                }));
+    }
+
+    /**
+     * Error statuses are raised as {@link HttpStatusCodeException} to keep the resilience classification of failures
+     */
+    private static void checkReadResponse(HttpRequest request, ClientHttpResponse response) throws IOException {
+        if (response.getStatusCode().isError()) {
+            READ_ERROR_HANDLER.handleError(request.getURI(), request.getMethod(), response);
+        }
+        if (response.getStatusCode() != HttpStatus.OK) {
+            log.error("Failed to get KV from consul, code: {}", response.getStatusCode());
+            throw new RuntimeException("Failed to get KV from consul, response with non 200 code");
+        }
+    }
+
+    private static KVNotFoundException kvNotFound() {
+        return new KVNotFoundException("KV not present in consul");
+    }
+
+    /**
+     * Query with a non-zero index blocks until the index is changed or wait timeout is reached
+     */
+    private static ConsulOperation getReadOperation(long index) {
+        return index > 0 ? ConsulOperation.BLOCKING_WAIT : ConsulOperation.GET;
+    }
+
+    /**
+     * Stale read is repeated with default consistency if the server lost contact with the leader
+     */
+    private <T> T readWithStalenessGuard(ConsulConsistencyMode mode, Function<ConsulConsistencyMode, T> read) {
+        if (mode != ConsulConsistencyMode.STALE) {
+            return read.apply(mode);
+        }
+
+        try {
+            return read.apply(mode);
+        } catch (ConsulException e) {
+            if (ExceptionUtils.indexOfType(e, ConsulStaleReadException.class) < 0) {
+                throw e;
             }
-            throw hcee;
+            log.debug("Repeating stale consul read with default consistency: {}", e.getMessage());
+            return read.apply(ConsulConsistencyMode.DEFAULT);
         }
     }
 
+    private void checkStaleness(ConsulConsistencyMode mode, HttpHeaders headers) {
+        if (mode != ConsulConsistencyMode.STALE) {
+            return;
+        }
+
+        String lastContact = headers.getFirst(CONSUL_LAST_CONTACT_HEADER);
+        if ("false".equals(headers.getFirst(CONSUL_KNOWN_LEADER_HEADER))
+                || (lastContact != null && Long.parseLong(lastContact) > maxStaleness.toMillis())) {
+            throw new ConsulStaleReadException("Consul stale read exceeds max staleness, leader last contact: "
+                    + lastContact + " ms");
+        }
+    }
+
+    @FunctionalInterface
+    private interface KVBodyReader<T> {
+        T read(InputStream body, String basePath) throws IOException;
+    }
+
     private HttpHeaders buildCommonHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import javax.annotation.Nullable;
+
+/**
+ * Consul read consistency mode.
+ * <ul>
+ *     <li>DEFAULT - read from the leader, may be stale for a short time after a leader election</li>
+ *     <li>STALE - read from any server, staleness is bounded by consul.consistency.max-staleness</li>
+ *     <li>CONSISTENT - leader verifies its leadership with a quorum before the read</li>
+ * </ul>
+ */
+public enum ConsulConsistencyMode {
+    DEFAULT(null),
+    STALE("stale"),
+    CONSISTENT("consistent");
+
+    private final String queryParam;
+
+    ConsulConsistencyMode(@Nullable String queryParam) {
+        this.queryParam = queryParam;
+    }
+
+    public String appendTo(String url) {
+        if (queryParam == null) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + queryParam;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consul client meters, all of them are tagged by {@link ConsulOperation#getTag()}.
+ * Percentile histograms can be enabled with
+ * {@code management.metrics.distribution.percentiles-histogram.consul.client=true}
+ */
+@Component
+public class ConsulMetrics {
+    public static final String REQUESTS_METRIC = "consul.client.requests";
+    public static final String RETRIES_METRIC = "consul.client.retries";
+    public static final String HEDGED_REQUESTS_METRIC = "consul.client.hedged.requests";
+    public static final String RESPONSE_BYTES_METRIC = "consul.client.response.bytes";
+    public static final String RESPONSE_KEYS_METRIC = "consul.client.response.keys";
+    public static final String TXN_CHUNKS_METRIC = "consul.client.txn.chunks";
+    public static final String CONFLICTS_METRIC = "consul.client.conflicts";
+    public static final String NOT_FOUND_METRIC = "consul.client.not.found";
+
+    private static final String OPERATION_TAG = "operation";
+    private static final String OUTCOME_TAG = "outcome";
+
+    public enum Outcome {
+        SUCCESS("success"),
+        NOT_FOUND("not-found"),
+        CONFLICT("conflict"),
+        UNAVAILABLE("unavailable"),
+        DEADLINE_EXCEEDED("deadline-exceeded"),
+        STALE("stale"),
+        ERROR("error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<ConsulOperation, Map<Outcome, Timer>> requestTimers = new EnumMap<>(ConsulOperation.class);
+    private final Map<ConsulOperation, Counter> retryCounters = new EnumMap<>(ConsulOperation.class);
+    private final Map<ConsulOperation, Counter> hedgedRequestCounters = new EnumMap<>(ConsulOperation.class);
+    private final Map<ConsulOperation, DistributionSummary> responseBytesSummaries = new EnumMap<>(ConsulOperation.class);
+    private final Map<ConsulOperation, DistributionSummary> responseKeysSummaries = new EnumMap<>(ConsulOperation.class);
+    private final Map<ConsulOperation, DistributionSummary> txnChunksSummaries = new EnumMap<>(ConsulOperation.class);
+    private final Map<ConsulOperation, Counter> conflictCounters = new EnumMap<>(ConsulOperation.class);
+    private final Map<ConsulOperation, Counter> notFoundCounters = new EnumMap<>(ConsulOperation.class);
+
+    @Autowired
+    public ConsulMetrics(MeterRegistry registry) {
+        for (ConsulOperation operation : ConsulOperation.values()) {
+            Map<Outcome, Timer> timers = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                timers.put(outcome, Timer.builder(REQUESTS_METRIC)
+                        .description("Consul calls duration including retries")
+                        .tag(OPERATION_TAG, operation.getTag())
+                        .tag(OUTCOME_TAG, outcome.tag)
+                        .register(registry));
+            }
+            requestTimers.put(operation, timers);
+            retryCounters.put(operation, Counter.builder(RETRIES_METRIC)
+                    .description("Consul call attempts repeated after a transient failure")
+                    .tag(OPERATION_TAG, operation.getTag())
+                    .register(registry));
+            hedgedRequestCounters.put(operation, Counter.builder(HEDGED_REQUESTS_METRIC)
+                    .description("Duplicate consul requests sent for slow reads")
+                    .tag(OPERATION_TAG, operation.getTag())
+                    .register(registry));
+            responseBytesSummaries.put(operation, DistributionSummary.builder(RESPONSE_BYTES_METRIC)
+                    .description("Consul response payload size")
+                    .baseUnit("bytes")
+                    .tag(OPERATION_TAG, operation.getTag())
+                    .register(registry));
+            responseKeysSummaries.put(operation, DistributionSummary.builder(RESPONSE_KEYS_METRIC)
+                    .description("Keys or txn results per consul response")
+                    .tag(OPERATION_TAG, operation.getTag())
+                    .register(registry));
+            txnChunksSummaries.put(operation, DistributionSummary.builder(TXN_CHUNKS_METRIC)
+                    .description("Txn requests per batched consul txn")
+                    .tag(OPERATION_TAG, operation.getTag())
+                    .register(registry));
+            conflictCounters.put(operation, Counter.builder(CONFLICTS_METRIC)
+                    .description("Consul txn requests rejected with 409 conflict")
+                    .tag(OPERATION_TAG, operation.getTag())
+                    .register(registry));
+            notFoundCounters.put(operation, Counter.builder(NOT_FOUND_METRIC)
+                    .description("Consul reads of absent keys")
+                    .tag(OPERATION_TAG, operation.getTag())
+                    .register(registry));
+        }
+    }
+
+    /**
+     * @param error null if the call succeeded
+     */
+    public void recordCall(ConsulOperation operation, long startNanos, Throwable error) {
+        record(operation, startNanos, getOutcome(error));
+    }
+
+    /**
+     * Read of an absent key completed with an empty result
+     */
+    public void recordNotFound(ConsulOperation operation, long startNanos) {
+        record(operation, startNanos, Outcome.NOT_FOUND);
+    }
+
+    private void record(ConsulOperation operation, long startNanos, Outcome outcome) {
+        requestTimers.get(operation).get(outcome).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        if (outcome == Outcome.CONFLICT) {
+            conflictCounters.get(operation).increment();
+        } else if (outcome == Outcome.NOT_FOUND) {
+            notFoundCounters.get(operation).increment();
+        }
+    }
+
+    public void recordRetry(ConsulOperation operation) {
+        retryCounters.get(operation).increment();
+    }
+
+    public void recordHedgedRequest(ConsulOperation operation) {
+        hedgedRequestCounters.get(operation).increment();
+    }
+
+    /**
+     * @param bytes payload size, negative if unknown (e.g. chunked response without Content-Length)
+     */
+    public void recordResponse(ConsulOperation operation, long bytes, int keys) {
+        if (bytes >= 0) {
+            responseBytesSummaries.get(operation).record(bytes);
+        }
+        responseKeysSummaries.get(operation).record(keys);
+    }
+
+    public void recordTxnChunks(ConsulOperation operation, int chunks) {
+        txnChunksSummaries.get(operation).record(chunks);
+    }
+
+    private static Outcome getOutcome(Throwable error) {
+        if (error == null) {
+            return Outcome.SUCCESS;
+        }
+        if (error instanceof KVNotFoundException) {
+            return Outcome.NOT_FOUND;
+        }
+        if (ExceptionUtils.indexOfType(error, TxnConflictException.class) >= 0) {
+            return Outcome.CONFLICT;
+        }
+        if (error instanceof ConsulUnavailableException) {
+            return Outcome.UNAVAILABLE;
+        }
+        if (error instanceof ConsulDeadlineExceededException) {
+            return Outcome.DEADLINE_EXCEEDED;
+        }
+        if (error instanceof ConsulStaleReadException) {
+            return Outcome.STALE;
+        }
+        return Outcome.ERROR;
+    }
+}
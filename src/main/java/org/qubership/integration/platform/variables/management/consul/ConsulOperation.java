@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import lombok.Getter;
+
+/**
+ * Kinds of consul calls, defines which of them can be safely retried or hedged
+ */
+@Getter
+public enum ConsulOperation {
+    GET("get", true, true),
+    KEYS("keys", true, true),
+    BLOCKING_WAIT("blocking-wait", true, false),
+    TXN_GET("txn-get", true, true),
+    TXN_SET("txn-set", false, false),
+    TXN_CAS("txn-cas", false, false),
+    TXN_DELETE("txn-delete", false, false),
+    PUT("put", false, false),
+    DELETE("delete", false, false);
+
+    private final String tag;
+
+    /**
+     * Repeated call has the same effect. CAS write is not, if the first attempt was applied and its response
+     * was lost, the retry is rejected with a conflict and the write is reported as a concurrent modification.
+     */
+    private final boolean idempotent;
+
+    /**
+     * Short read, a duplicate request may be sent when the first one is slow
+     */
+    private final boolean read;
+
+    ConsulOperation(String tag, boolean idempotent, boolean read) {
+        this.tag = tag;
+        this.idempotent = idempotent;
+        this.read = read;
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs consul calls with a circuit breaker, retries of transient failures, hedged reads and per-operation deadlines.
+ * <p>
+ * Transient failures are IO errors, 5xx and 429 responses. Only idempotent operations are retried,
+ * other operations are retried only if connection was not established. Each attempt runs on a virtual thread,
+ * so the caller is released when the deadline is reached and the attempt is interrupted.
+ */
+@Slf4j
+@Component
+public class ConsulResilienceExecutor {
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final boolean enabled;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final boolean hedgingEnabled;
+    private final long hedgingDelayNanos;
+    private final long readDeadlineNanos;
+    private final long writeDeadlineNanos;
+    private final ConsulCircuitBreaker circuitBreaker;
+    private final ExecutorService executor;
+    private final ConsulMetrics metrics;
+
+    @Autowired
+    public ConsulResilienceExecutor(@Value("${consul.resilience.enabled}") boolean enabled,
+                                    @Value("${consul.resilience.retry.max-attempts}") int maxAttempts,
+                                    @Value("${consul.resilience.retry.initial-backoff}") Duration initialBackoff,
+                                    @Value("${consul.resilience.retry.max-backoff}") Duration maxBackoff,
+                                    @Value("${consul.resilience.circuit-breaker.enabled}") boolean circuitBreakerEnabled,
+                                    @Value("${consul.resilience.circuit-breaker.failure-threshold}") int failureThreshold,
+                                    @Value("${consul.resilience.circuit-breaker.open-duration}") Duration openDuration,
+                                    @Value("${consul.resilience.hedging.enabled}") boolean hedgingEnabled,
+                                    @Value("${consul.resilience.hedging.delay}") Duration hedgingDelay,
+                                    @Value("${consul.resilience.deadline.read}") Duration readDeadline,
+                                    @Value("${consul.resilience.deadline.write}") Duration writeDeadline,
+                                    ConsulMetrics metrics) {
+        this.enabled = enabled;
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgingDelayNanos = hedgingDelay.toNanos();
+        this.readDeadlineNanos = readDeadline.toNanos();
+        this.writeDeadlineNanos = writeDeadline.toNanos();
+        this.circuitBreaker = circuitBreakerEnabled
+                ? new ConsulCircuitBreaker(failureThreshold, openDuration.toNanos())
+                : null;
+        this.executor = enabled
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("consul-call-", 0).factory())
+                : null;
+        this.metrics = metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @throws ConsulUnavailableException       if circuit breaker is open
+     * @throws ConsulDeadlineExceededException  if operation deadline is reached
+     * <p>
+     * Empty {@link Optional} result is recorded as not found outcome
+     */
+    public <T> T execute(ConsulOperation operation, Supplier<T> call) throws ConsulException {
+        long startNanos = System.nanoTime();
+        try {
+            T result = enabled ? executeResiliently(operation, call) : call.get();
+            if (result instanceof Optional<?> optional && optional.isEmpty()) {
+                metrics.recordNotFound(operation, startNanos);
+            } else {
+                metrics.recordCall(operation, startNanos, null);
+            }
+            return result;
+        } catch (RuntimeException e) {
+            metrics.recordCall(operation, startNanos, e);
+            throw e;
+        }
+    }
+
+    private <T> T executeResiliently(ConsulOperation operation, Supplier<T> call) {
+
+        long deadlineNanos = getDeadlineNanos(operation);
+        RuntimeException lastError = null;
+        for (int attempt = 1; ; attempt++) {
+            if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+                if (lastError != null) {
+                    throw lastError;
+                }
+                throw new ConsulUnavailableException("Consul is unavailable, circuit breaker is open, operation: "
+                        + operation.getTag());
+            }
+
+            try {
+                T result = runAttempt(operation, call, deadlineNanos);
+                onOutcome(null);
+                return result;
+            } catch (InterruptedException e) {
+                if (circuitBreaker != null) {
+                    circuitBreaker.onIgnored();
+                }
+                Thread.currentThread().interrupt();
+                throw new ConsulException("Consul call is interrupted, operation: " + operation.getTag(), e);
+            } catch (RuntimeException e) {
+                onOutcome(e);
+                lastError = e;
+            }
+
+            if (!isRetryable(operation, lastError) || attempt >= maxAttempts) {
+                throw lastError;
+            }
+
+            long backoffNanos = getBackoffNanos(attempt);
+            if (backoffNanos >= remainingNanos(deadlineNanos)) {
+                throw lastError;
+            }
+            log.warn("Consul {} call failed, attempt {} of {}, retrying in {} ms: {}",
+                    operation.getTag(), attempt, maxAttempts, backoffNanos / 1_000_000, lastError.getMessage());
+            metrics.recordRetry(operation);
+            try {
+                TimeUnit.NANOSECONDS.sleep(backoffNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw lastError;
+            }
+        }
+    }
+
+    /**
+     * Sends a hedged request if the first one does not complete within hedging delay,
+     * the first successful response wins and the other request is cancelled
+     */
+    private <T> T runAttempt(ConsulOperation operation, Supplier<T> call, long deadlineNanos)
+            throws InterruptedException {
+        boolean hedge = hedgingEnabled && operation.isRead();
+        ExecutorCompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<T>> futures = new ArrayList<>(2);
+        try {
+            futures.add(completionService.submit(withMdc(call)::get));
+            int pending = 1;
+            while (true) {
+                boolean hedgePending = hedge && futures.size() == 1;
+                long remainingNanos = remainingNanos(deadlineNanos);
+                Future<T> completed = completionService.poll(
+                        hedgePending ? Math.min(hedgingDelayNanos, remainingNanos) : remainingNanos,
+                        TimeUnit.NANOSECONDS);
+
+                if (completed == null) {
+                    if (hedgePending && remainingNanos(deadlineNanos) > 0) {
+                        log.debug("Consul {} call is slow, sending hedged request", operation.getTag());
+                        metrics.recordHedgedRequest(operation);
+                        futures.add(completionService.submit(withMdc(call)::get));
+                        pending++;
+                        continue;
+                    }
+                    throw new ConsulDeadlineExceededException("Consul call deadline exceeded, operation: "
+                            + operation.getTag());
+                }
+
+                pending--;
+                try {
+                    return completed.get();
+                } catch (ExecutionException e) {
+                    if (pending == 0) {
+                        throw e.getCause() instanceof RuntimeException runtimeException
+                                ? runtimeException
+                                : new ConsulException("Consul call failed", e.getCause());
+                    }
+                }
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private void onOutcome(RuntimeException error) {
+        if (circuitBreaker == null) {
+            return;
+        }
+        if (error != null && isTransient(error)) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    private static boolean isRetryable(ConsulOperation operation, Throwable error) {
+        if (operation.isIdempotent()) {
+            return isTransient(error);
+        }
+        return ExceptionUtils.indexOfType(error, ConnectException.class) >= 0;
+    }
+
+    private static boolean isTransient(Throwable error) {
+        return ExceptionUtils.getThrowableList(error).stream().anyMatch(throwable ->
+                throwable instanceof ConsulDeadlineExceededException
+                        || throwable instanceof ResourceAccessException
+                        || throwable instanceof IOException
+                        || throwable instanceof HttpServerErrorException
+                        || throwable instanceof HttpClientErrorException.TooManyRequests);
+    }
+
+    /**
+     * Exponential backoff with equal jitter - half of the delay is fixed and half is random
+     */
+    private long getBackoffNanos(int attempt) {
+        long delay = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 30));
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    /**
+     * Blocking queries are bounded by the wait parameter and http read timeout
+     */
+    private long getDeadlineNanos(ConsulOperation operation) {
+        if (operation == ConsulOperation.BLOCKING_WAIT) {
+            return NO_DEADLINE;
+        }
+        long timeoutNanos = operation.isRead() ? readDeadlineNanos : writeDeadlineNanos;
+        return System.nanoTime() + timeoutNanos;
+    }
+
+    private static long remainingNanos(long deadlineNanos) {
+        return deadlineNanos == NO_DEADLINE ? Long.MAX_VALUE : deadlineNanos - System.nanoTime();
+    }
+
+    private static <T> Supplier<T> withMdc(Supplier<T> call) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            if (context != null) {
+                MDC.setContextMap(context);
+            }
+            try {
+                return call.get();
+            } finally {
+                MDC.clear();
+            }
+        };
+    }
+}
@@ -16,20 +16,32 @@
 
 package org.qubership.integration.platform.variables.management.consul;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.NotNull;
+import org.qubership.integration.platform.variables.management.model.consul.KVWriteStatus;
 import org.qubership.integration.platform.variables.management.model.consul.txn.KVResponse;
 import org.qubership.integration.platform.variables.management.model.consul.txn.KeyResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -38,6 +50,8 @@
 @Component
 public class ConsulService {
     private final ConsulClient client;
+    private final CommonVariablesCache commonVariablesCache;
+    private final ExecutorService asyncExecutor;
 
     @Value("${consul.keys.prefix}")
     private String keyPrefix;
@@ -56,27 +70,87 @@ public class ConsulService {
     @Value("${consul.keys.common-variables-v2}")
     private String keyCommonVariablesV2;
 
+    @Value("${consul.txn.cas-max-attempts}")
+    private int casMaxAttempts;
+
+    @Value("${consul.consistency.read}")
+    private ConsulConsistencyMode readConsistency;
+
+    @Value("${consul.consistency.list}")
+    private ConsulConsistencyMode listConsistency;
+
+    @Value("${consul.write-coalescing.enabled}")
+    private boolean writeCoalescingEnabled;
+
+    @Value("${consul.write-coalescing.window}")
+    private Duration writeCoalescingWindow;
+
+    @Value("${consul.write-coalescing.max-batch-size}")
+    private int writeCoalescingMaxBatchSize;
+
+    @Value("${consul.write-coalescing.result-timeout}")
+    private Duration writeCoalescingResultTimeout;
+
+    /**
+     * Null if single variable writes are not coalesced
+     */
+    private CommonVariablesWriteCoalescer writeCoalescer;
+
     @Autowired
-    public ConsulService(ConsulClient client) {
+    public ConsulService(ConsulClient client,
+                         CommonVariablesCache commonVariablesCache,
+                         @Qualifier("consulAsyncExecutor") ExecutorService asyncExecutor) {
         this.client = client;
+        this.commonVariablesCache = commonVariablesCache;
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (writeCoalescingEnabled) {
+            writeCoalescer = new CommonVariablesWriteCoalescer(
+                    this::upsertCommonVariables, writeCoalescingWindow, writeCoalescingMaxBatchSize);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writeCoalescer != null) {
+            writeCoalescer.stop();
+        }
     }
 
     public @Nullable Pair<String, String> getCommonVariable(String key) {
-        try {
-            List<KeyResponse> response = client.getKV(buildCommonVariableKey(key), false);
-            return response.isEmpty() ? null : parseCommonVariable(response.get(0));
-        } catch (KVNotFoundException kvnfe) {
-            return null;
+        CommonVariablesSnapshot snapshot = getSnapshot(readConsistency);
+        if (snapshot != null) {
+            String value = snapshot.getVariables().get(key);
+            return value == null ? null : Pair.of(key, value);
         }
+
+        return client.findKV(buildCommonVariableKey(key), false, readConsistency)
+                .filter(response -> !response.isEmpty())
+                .map(response -> parseCommonVariable(response.get(0)))
+                .orElse(null);
+    }
+
+    public Map<String, String> getCommonVariables(List<String> variablesNames) {
+        return getCommonVariables(variablesNames, readConsistency);
     }
 
     /**
      * No error handling in case of empty KV
      */
-    public Map<String, String> getCommonVariables(List<String> variablesNames) {
-        List<KVResponse> response = client.getKVsInTransaction(variablesNames.stream()
+    public Map<String, String> getCommonVariables(List<String> variablesNames, ConsulConsistencyMode mode) {
+        CommonVariablesSnapshot snapshot = getSnapshot(mode);
+        if (snapshot != null && snapshot.getVariables().keySet().containsAll(variablesNames)) {
+            return variablesNames.stream()
+                    .distinct()
+                    .collect(Collectors.toMap(Function.identity(), snapshot.getVariables()::get));
+        }
+
+        List<KeyResponse> response = client.getKVsInTransaction(variablesNames.stream()
                 .map(this::buildCommonVariableKeyForTxn)
-                .toList());
+                .toList(), mode);
         return response.stream().map(this::parseCommonVariable)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toMap(Pair::getKey, nullValueRemapping()));
@@ -91,16 +165,56 @@ public Map<String, String> getTenantCommonVariablesLegacy(String tenantId) {
     }
 
     public Map<String, String> getAllCommonVariables() {
-        return getStringStringMap(keyCommonVariablesV2);
+        return getAllCommonVariables(listConsistency);
     }
 
-    public boolean commonVariablesKvExists() {
-        try {
-            client.getKV(keyPrefix + keyEngineConfigRoot + keyCommonVariablesV2, true);
-            return true;
-        } catch (KVNotFoundException kvnfe) {
-            return false;
+    public Map<String, String> getAllCommonVariables(ConsulConsistencyMode mode) {
+        CommonVariablesSnapshot snapshot = getSnapshot(mode);
+        return snapshot != null ? snapshot.getVariables() : getStringStringMap(keyCommonVariablesV2, mode);
+    }
+
+    /**
+     * @return consul index of the common variables, 0 if unknown, and all common variables
+     */
+    public Pair<Long, Map<String, String>> getAllCommonVariablesWithIndex() {
+        CommonVariablesSnapshot snapshot = getSnapshot(listConsistency);
+        if (snapshot != null) {
+            return Pair.of(snapshot.getIndex(), snapshot.getVariables());
+        }
+
+        return client.findL1KVs(keyPrefix + keyEngineConfigRoot + keyCommonVariablesV2, listConsistency)
+                .orElseGet(() -> Pair.of(0L, Collections.emptyMap()));
+    }
+
+    /**
+     * Blocking query for common variables, returns when consul index becomes greater than the given one
+     * or when wait timeout expires
+     *
+     * @return consul index and all common variables
+     */
+    public Pair<Long, Map<String, String>> waitForCommonVariablesChanges(long index, String waitTimeout)
+            throws KVNotFoundException {
+        return client.waitForL1KVChanges(this.keyPrefix + keyEngineConfigRoot + keyCommonVariablesV2, index, waitTimeout);
+    }
+
+    public Set<String> getCommonVariablesNames() {
+        return getCommonVariablesNames(listConsistency);
+    }
+
+    public Set<String> getCommonVariablesNames(ConsulConsistencyMode mode) {
+        CommonVariablesSnapshot snapshot = getSnapshot(mode);
+        if (snapshot != null) {
+            return snapshot.getVariables().keySet();
         }
+
+        return client.findL1Keys(keyPrefix + keyEngineConfigRoot + keyCommonVariablesV2, mode)
+                .<Set<String>>map(HashSet::new)
+                .orElse(Collections.emptySet());
+    }
+
+    public boolean commonVariablesKvExists() {
+        return client.findL1Keys(keyPrefix + keyEngineConfigRoot + keyCommonVariablesV2, ConsulConsistencyMode.DEFAULT)
+                .isPresent();
     }
 
     /**
@@ -109,29 +223,58 @@ public boolean commonVariablesKvExists() {
     @Deprecated(since = "24.1")
     @NotNull
     private Map<String, String> getStringStringMapLegacy(String key) {
-        return getStringStringMap(key, this::parseCommonVariable);
+        return getStringStringMap(key, ConsulConsistencyMode.DEFAULT);
     }
 
     @NotNull
-    private Map<String, String> getStringStringMap(String key) {
-        return getStringStringMap(key, this::parseCommonVariable);
+    private Map<String, String> getStringStringMap(String key, ConsulConsistencyMode mode) {
+        return client.findL1KVs(this.keyPrefix + keyEngineConfigRoot + key, mode)
+                .map(Pair::getRight)
+                .orElse(Collections.emptyMap());
     }
 
-    @NotNull
-    private Map<String, String> getStringStringMap(String key, Function<KeyResponse, Pair<String, String>> responseParser) {
-        try {
-            final String keyPrefix = this.keyPrefix + keyEngineConfigRoot + key;
-            List<KeyResponse> responses =
-                    client.getKV(keyPrefix, true);
-
-            return responses.stream()
-                    .filter(keyResponse -> filterL1NonEmptyPaths(keyPrefix, keyResponse.getKey()))
-                    .map(responseParser)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toMap(Pair::getKey, nullValueRemapping()));
-        } catch (KVNotFoundException kvnfe) {
-            return Collections.emptyMap();
+    /**
+     * Completed immediately when all variables are present in the fresh snapshot,
+     * otherwise consul is read on a virtual thread
+     */
+    public CompletableFuture<Map<String, String>> getCommonVariablesAsync(List<String> variablesNames) {
+        CommonVariablesSnapshot snapshot = getSnapshot(readConsistency);
+        if (snapshot != null && snapshot.getVariables().keySet().containsAll(variablesNames)) {
+            return CompletableFuture.completedFuture(getCommonVariables(variablesNames));
         }
+        return CompletableFuture.supplyAsync(() -> getCommonVariables(variablesNames), asyncExecutor);
+    }
+
+    public CompletableFuture<Map<String, String>> getAllCommonVariablesAsync() {
+        CommonVariablesSnapshot snapshot = getSnapshot(listConsistency);
+        return snapshot != null
+                ? CompletableFuture.completedFuture(snapshot.getVariables())
+                : CompletableFuture.supplyAsync(this::getAllCommonVariables, asyncExecutor);
+    }
+
+    public CompletableFuture<Pair<Long, Map<String, String>>> waitForCommonVariablesChangesAsync(long index,
+                                                                                                String waitTimeout) {
+        return client.waitForL1KVChangesAsync(
+                this.keyPrefix + keyEngineConfigRoot + keyCommonVariablesV2, index, waitTimeout);
+    }
+
+    public CompletableFuture<Void> updateCommonVariablesAsync(Map<String, String> variables) {
+        return CompletableFuture.runAsync(() -> updateCommonVariables(variables), asyncExecutor);
+    }
+
+    public CompletableFuture<Map<String, KVWriteStatus>> upsertCommonVariablesAsync(Map<String, String> variables) {
+        return CompletableFuture.supplyAsync(() -> upsertCommonVariables(variables), asyncExecutor);
+    }
+
+    public CompletableFuture<Void> deleteCommonVariablesAsync(List<String> variablesNames) {
+        return CompletableFuture.runAsync(() -> deleteCommonVariables(variablesNames), asyncExecutor);
+    }
+
+    /**
+     * Snapshot may lag behind the leader, so consistent reads always go to consul
+     */
+    private @Nullable CommonVariablesSnapshot getSnapshot(ConsulConsistencyMode mode) {
+        return mode == ConsulConsistencyMode.CONSISTENT ? null : commonVariablesCache.getFreshSnapshot();
     }
 
     @NotNull
@@ -145,16 +288,19 @@ public void deleteLegacyVariablesKV() {
 
     public void deleteCommonVariable(String key) {
         client.deleteKV(buildCommonVariableKey(key), false);
+        commonVariablesCache.applyDeletes(Collections.singletonList(key));
     }
 
     public void deleteCommonVariables(List<String> variablesNames) {
         client.deleteKVsInTransaction(variablesNames.stream()
                 .map(this::buildCommonVariableKeyForTxn)
                 .toList());
+        commonVariablesCache.applyDeletes(variablesNames);
     }
 
     public void updateCommonVariable(String key, String value) {
         client.createOrUpdateKV(buildCommonVariableKey(key), value);
+        commonVariablesCache.applyUpdates(Collections.singletonMap(key, value));
     }
 
     public void updateCommonVariables(Map<String, String> variables) {
@@ -162,6 +308,83 @@ public void updateCommonVariables(Map<String, String> variables) {
                 .collect(Collectors.toMap(
                         entry -> buildCommonVariableKeyForTxn(entry.getKey()),
                         Map.Entry::getValue)));
+        commonVariablesCache.applyUpdates(variables);
+    }
+
+    /**
+     * Concurrent single variable writes are flushed as one txn if consul.write-coalescing is enabled
+     */
+    public KVWriteStatus upsertCommonVariable(String key, String value) {
+        if (writeCoalescer == null) {
+            return upsertCommonVariables(Collections.singletonMap(key, value)).get(key);
+        }
+
+        try {
+            return writeCoalescer.submit(key, value)
+                    .get(writeCoalescingResultTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : new ConsulException("Common variable write failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new ConsulDeadlineExceededException("Common variable write did not complete in "
+                    + writeCoalescingResultTimeout + ", the write may still be applied");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConsulException("Interrupted while waiting for common variable write", e);
+        }
+    }
+
+    /**
+     * Check-and-set write of common variables. ModifyIndex of the written variables is read in a txn
+     * of these keys only, then all variables are written with CAS verb. Keys modified concurrently are re-read and retried
+     * up to consul.txn.cas-max-attempts times.
+     *
+     * @return CREATED or UPDATED status per variable
+     */
+    public Map<String, KVWriteStatus> upsertCommonVariables(Map<String, String> variables) {
+        Map<String, KVWriteStatus> statuses = new HashMap<>();
+        Map<String, String> pending = variables;
+
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            Map<String, String> txnKeysToNames = pending.keySet().stream()
+                    .collect(Collectors.toMap(this::buildCommonVariableKeyForTxn, Function.identity()));
+            Map<String, Long> modifyIndexes = client.getModifyIndexesInTransaction(txnKeysToNames.keySet());
+            Set<String> failedNames = Collections.emptySet();
+
+            try {
+                client.casKVsInTransaction(
+                        pending.entrySet().stream().collect(Collectors.toMap(
+                                entry -> buildCommonVariableKeyForTxn(entry.getKey()),
+                                entry -> entry.getValue() == null ? "" : entry.getValue())),
+                        modifyIndexes);
+            } catch (TxnConflictException e) {
+                if (attempt >= casMaxAttempts) {
+                    throw e;
+                }
+                failedNames = e.getFailedKeys().isEmpty()
+                        ? pending.keySet()
+                        : e.getFailedKeys().stream().map(txnKeysToNames::get).collect(Collectors.toSet());
+            }
+
+            Map<String, String> retry = new HashMap<>();
+            for (Map.Entry<String, String> entry : pending.entrySet()) {
+                if (failedNames.contains(entry.getKey())) {
+                    retry.put(entry.getKey(), entry.getValue());
+                } else {
+                    statuses.put(entry.getKey(), modifyIndexes.containsKey(buildCommonVariableKeyForTxn(entry.getKey()))
+                            ? KVWriteStatus.UPDATED
+                            : KVWriteStatus.CREATED);
+                }
+            }
+            if (!retry.isEmpty()) {
+                log.warn("Common variables were modified concurrently, retrying CAS write for {} variables", retry.size());
+            }
+            pending = retry;
+        }
+
+        commonVariablesCache.applyUpdates(variables);
+        return statuses;
     }
 
     @NotNull
@@ -183,9 +406,4 @@ private Pair<String, String> parseCommonVariable(KVResponse k) {
         String[] split = k.getKey().split("/");
         return split.length > 0 ? Pair.of(split[split.length - 1], k.getDecodedValue()) : null;
     }
-
-    private static boolean filterL1NonEmptyPaths(String pathPrefix, String path) {
-        String[] split = path.substring(pathPrefix.length()).split("/");
-        return split.length == 1 && StringUtils.isNotEmpty(split[0]);
-    }
 }
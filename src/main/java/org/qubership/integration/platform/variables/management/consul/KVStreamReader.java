@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token-by-token reader of consul recursive KV responses.
+ * Only direct children of the base path are decoded, other entries are skipped without materialization.
+ */
+final class KVStreamReader {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final String KEY_FIELD = "Key";
+    private static final String VALUE_FIELD = "Value";
+
+    private KVStreamReader() {
+    }
+
+    /**
+     * @param basePath path without leading slash and with trailing slash (e.g. 'config/test/')
+     * @return last path word as a key and decoded value, null values are mapped to empty string
+     */
+    static Map<String, String> readL1Values(InputStream body, String basePath) throws IOException {
+        Map<String, String> result = new HashMap<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.VALUE_NULL) {
+                return result;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "Consul KV response is not an array");
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                readL1Entry(parser, basePath, result);
+            }
+        }
+        return result;
+    }
+
+    private static void readL1Entry(JsonParser parser, String basePath, Map<String, String> result) throws IOException {
+        boolean keyRead = false;
+        String name = null;
+        String value = null;
+        String encodedValue = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (KEY_FIELD.equals(field)) {
+                keyRead = true;
+                name = resolveL1Name(parser, basePath);
+            } else if (VALUE_FIELD.equals(field) && token == JsonToken.VALUE_STRING) {
+                if (name != null) {
+                    value = new String(parser.getBinaryValue(), StandardCharsets.UTF_8);
+                } else if (!keyRead) {
+                    // unusual field order, value goes before the key
+                    encodedValue = parser.getText();
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (name != null) {
+            if (value == null && encodedValue != null) {
+                value = new String(Base64.getDecoder().decode(encodedValue), StandardCharsets.UTF_8);
+            }
+            result.put(name, value == null ? "" : value);
+        }
+    }
+
+    /**
+     * Slices the key in the parser buffer, no string is allocated for keys outside the first level
+     */
+    private static String resolveL1Name(JsonParser parser, String basePath) throws IOException {
+        char[] chars = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        int length = parser.getTextLength();
+        int baseLength = basePath.length();
+
+        if (length <= baseLength) {
+            return null;
+        }
+        for (int i = 0; i < baseLength; i++) {
+            if (chars[offset + i] != basePath.charAt(i)) {
+                return null;
+            }
+        }
+        for (int i = baseLength; i < length; i++) {
+            if (chars[offset + i] == '/') {
+                return null;
+            }
+        }
+        return new String(chars, offset + baseLength, length - baseLength);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Batched txn request was applied partially, all operations on failed keys were not performed.
+ * A batch failed by a concurrent modification is reported as {@link TxnConflictException} instead.
+ */
+@Getter
+public class TxnBatchException extends ConsulException {
+    private static final int MESSAGE_SAMPLE_KEYS = 5;
+
+    /**
+     * All keys not processed, the message contains only a few of them
+     */
+    private final List<String> failedKeys;
+
+    public TxnBatchException(List<String> failedKeys, Throwable cause) {
+        super("Consul txn batch failed, keys not processed " + describeKeys(failedKeys)
+                + ", cause: " + cause.getMessage(), cause);
+        this.failedKeys = failedKeys;
+    }
+
+    /**
+     * @return count of the keys and the first of them, e.g. '(12): [a, b, c, d, e, ...]'
+     */
+    static String describeKeys(List<String> keys) {
+        List<String> sample = keys.size() > MESSAGE_SAMPLE_KEYS ? keys.subList(0, MESSAGE_SAMPLE_KEYS) : keys;
+        return "(" + keys.size() + "): [" + String.join(", ", sample)
+                + (keys.size() > MESSAGE_SAMPLE_KEYS ? ", ...]" : "]");
+    }
+}
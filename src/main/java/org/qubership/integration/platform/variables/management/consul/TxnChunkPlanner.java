@@ -0,0 +1,114 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import lombok.extern.slf4j.Slf4j;
+import org.qubership.integration.platform.variables.management.model.consul.txn.request.TxnKVRequest;
+import org.qubership.integration.platform.variables.management.model.consul.txn.request.TxnRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits txn operations into chunks limited by both operations count and encoded payload size.
+ * Operations are packed in order, so the number of chunks is minimal for the given order.
+ * Limits are lowered when consul rejects a chunk as too large.
+ */
+@Slf4j
+final class TxnChunkPlanner {
+    /**
+     * JSON of a single operation without key and value: {"KV":{"Verb":"","Key":"","Value":null,"Index":},
+     * with the longest verb and index
+     */
+    private static final int OPERATION_OVERHEAD_BYTES = 86;
+
+    private volatile int maxOperations;
+    private volatile long maxPayloadBytes;
+
+    TxnChunkPlanner(int maxOperations, long maxPayloadBytes) {
+        this.maxOperations = maxOperations;
+        this.maxPayloadBytes = maxPayloadBytes;
+    }
+
+    List<List<TxnRequest>> plan(List<TxnRequest> requests) {
+        int operationsLimit = maxOperations;
+        long payloadLimit = maxPayloadBytes;
+
+        List<List<TxnRequest>> chunks = new ArrayList<>();
+        List<TxnRequest> chunk = new ArrayList<>();
+        long chunkBytes = 2; // enclosing array brackets
+        for (TxnRequest request : requests) {
+            long requestBytes = estimateSize(request);
+            if (!chunk.isEmpty() && (chunk.size() >= operationsLimit || chunkBytes + requestBytes > payloadLimit)) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkBytes = 2;
+            }
+            chunk.add(request);
+            chunkBytes += requestBytes;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Lowers the limit that was exceeded, so next plans fit the limits of consul
+     *
+     * @param tooManyOperations consul rejected the chunk because of operations count, otherwise because of size
+     */
+    void onTooLarge(List<TxnRequest> chunk, boolean tooManyOperations) {
+        if (tooManyOperations) {
+            int limit = Math.max(chunk.size() / 2, 1);
+            if (limit < maxOperations) {
+                maxOperations = limit;
+                log.warn("Consul rejected txn with {} operations, operations limit is lowered to {}", chunk.size(), limit);
+            }
+        } else {
+            long limit = Math.max(estimateSize(chunk) / 2, 1);
+            if (limit < maxPayloadBytes) {
+                maxPayloadBytes = limit;
+                log.warn("Consul rejected txn of {} bytes, payload limit is lowered to {} bytes", estimateSize(chunk), limit);
+            }
+        }
+    }
+
+    static long estimateSize(List<TxnRequest> chunk) {
+        long size = 2;
+        for (TxnRequest request : chunk) {
+            size += estimateSize(request);
+        }
+        return size;
+    }
+
+    /**
+     * Size of the operation in txn request body, values are already base64 encoded
+     */
+    static long estimateSize(TxnRequest request) {
+        TxnKVRequest kv = request.getKv();
+        long size = OPERATION_OVERHEAD_BYTES;
+        if (kv.getKey() != null) {
+            size += kv.getKey().getBytes(StandardCharsets.UTF_8).length;
+        }
+        if (kv.getValue() != null) {
+            size += kv.getValue().length() + 2;
+        }
+        return size;
+    }
+}
@@ -16,16 +16,35 @@
 
 package org.qubership.integration.platform.variables.management.consul;
 
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+@Getter
 public class TxnConflictException extends ConsulException {
+    /**
+     * Keys not processed by a batched txn, empty if the whole txn was rejected
+     */
+    private final List<String> failedKeys;
+
     public TxnConflictException() {
         super();
+        this.failedKeys = Collections.emptyList();
     }
 
     public TxnConflictException(String message) {
         super(message);
+        this.failedKeys = Collections.emptyList();
     }
 
     public TxnConflictException(String message, Throwable cause) {
         super(message, cause);
+        this.failedKeys = Collections.emptyList();
+    }
+
+    public TxnConflictException(List<String> failedKeys, Throwable cause) {
+        super("Consul txn batch conflict, keys not processed " + TxnBatchException.describeKeys(failedKeys), cause);
+        this.failedKeys = failedKeys;
     }
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.kubernetes;
+
+/**
+ * Secret was modified after it was read and the resourceVersion test of the patch failed
+ */
+public class KubeApiConflictException extends KubeApiException {
+
+    public KubeApiConflictException(String errorMessage) {
+        super(errorMessage);
+    }
+
+    public KubeApiConflictException(String errorMessage, Exception originalException) {
+        super(errorMessage, originalException);
+    }
+}
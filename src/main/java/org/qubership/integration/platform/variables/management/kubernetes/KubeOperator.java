@@ -20,6 +20,7 @@
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.kubernetes.client.custom.V1Patch;
+import io.kubernetes.client.openapi.ApiCallback;
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.apis.AppsV1Api;
@@ -30,6 +31,11 @@
 import io.kubernetes.client.openapi.models.V1SecretList;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.qubership.integration.platform.variables.management.model.json.JsonPatch;
 import org.qubership.integration.platform.variables.management.model.json.PatchOperation;
@@ -38,6 +44,7 @@
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -45,9 +52,14 @@ public class KubeOperator {
 
     public static final String SECRET_LABELS_PATH = "/metadata/labels";
     public static final String SECRET_DATA_PATH = "/data";
+    public static final String SECRET_RESOURCE_VERSION_PATH = "/metadata/resourceVersion";
+    public static final int DEFAULT_LIST_PAGE_SIZE = 100;
+    public static final String FIELD_MANAGER = "qip-variables-management";
 
     private static final String METADATA_NAME_FIELD = "metadata.name";
+    private static final int DATA_ENTRY_OVERHEAD = 6;
     private static final String DEFAULT_ERR_MESSAGE = "Invalid k8s cluster parameters or API error. ";
+    private static final String RESOURCE_VERSION_TEST_FAILURE = "testing value " + SECRET_RESOURCE_VERSION_PATH + " failed";
 
     private final ObjectMapper objectMapper;
     private final CoreV1Api coreApi;
@@ -56,11 +68,17 @@ public class KubeOperator {
 
     private final String namespace;
 
+    /**
+     * Labelled secrets are listed in pages of this size, so a whole list is never buffered at once
+     */
+    private final int listPageSize;
+
     public KubeOperator() {
         coreApi = new CoreV1Api();
         appsApi = new AppsV1Api();
         customObjectsApi = new CustomObjectsApi();
         namespace = null;
+        listPageSize = DEFAULT_LIST_PAGE_SIZE;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
     }
@@ -68,6 +86,13 @@ public KubeOperator() {
     public KubeOperator(
             ApiClient client,
             String namespace) {
+        this(client, namespace, DEFAULT_LIST_PAGE_SIZE);
+    }
+
+    public KubeOperator(
+            ApiClient client,
+            String namespace,
+            int listPageSize) {
 
         coreApi = new CoreV1Api();
         coreApi.setApiClient(client);
@@ -79,22 +104,54 @@ public KubeOperator(
         customObjectsApi.setApiClient(client);
 
         this.namespace = namespace;
+        this.listPageSize = listPageSize;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
     }
 
     public ConcurrentMap<String, ConcurrentMap<String, String>> getAllSecretsWithLabel(Pair<String, String> label) {
         ConcurrentMap<String, ConcurrentMap<String, String>> secrets = new ConcurrentHashMap<>();
+        forEachSecretObjectWithLabel(label, secret -> secrets.put(secret.getMetadata().getName(), getSecretData(secret)));
+        return secrets;
+    }
+
+    /**
+     * @return secrets with metadata, e.g. resourceVersion, secrets without metadata are skipped
+     */
+    public List<V1Secret> getAllSecretObjectsWithLabel(Pair<String, String> label) {
+        List<V1Secret> secrets = new ArrayList<>();
+        forEachSecretObjectWithLabel(label, secrets::add);
+        return secrets;
+    }
+
+    /**
+     * Lists the secrets page by page, each page is passed to the action before the next one is requested
+     */
+    public void forEachSecretObjectWithLabel(Pair<String, String> label, Consumer<V1Secret> action) {
+        String continueToken = null;
+        do {
+            SecretsPage page = listSecretObjectsWithLabel(label, listPageSize, continueToken);
+            page.secrets().forEach(action);
+            continueToken = page.continueToken();
+        } while (continueToken != null);
+    }
 
+    /**
+     * Pages are served from a consistent snapshot of the first request, an expired continue token
+     * fails and the listing has to be restarted
+     *
+     * @param continueToken token of the previous page, null for the first page
+     */
+    public SecretsPage listSecretObjectsWithLabel(Pair<String, String> label, int limit, @Nullable String continueToken) {
         try {
             V1SecretList secretList = coreApi.listNamespacedSecret(
                     namespace,
                     null,
                     null,
-                    null,
+                    continueToken,
                     null,
                     label.getKey() + "=" + label.getValue(),
-                    null,
+                    limit,
                     null,
                     null,
                     null,
@@ -102,20 +159,18 @@ public ConcurrentMap<String, ConcurrentMap<String, String>> getAllSecretsWithLab
                     null
             );
 
-            List<V1Secret> secretListItems = secretList.getItems();
-            for (V1Secret secret : secretListItems) {
-                V1ObjectMeta metadata = secret.getMetadata();
-                if (metadata == null) {
-                    continue;
-                }
-
-                ConcurrentMap<String, String> dataMap = new ConcurrentHashMap<>();
-                if (secret.getData() != null) {
-                    secret.getData().forEach((k, v) -> dataMap.put(k, new String(v)));
-                }
-                secrets.put(metadata.getName(), dataMap);
-            }
+            List<V1Secret> secrets = secretList.getItems().stream()
+                    .filter(secret -> secret.getMetadata() != null)
+                    .toList();
+            String nextContinueToken = secretList.getMetadata() == null
+                    ? null
+                    : StringUtils.defaultIfEmpty(secretList.getMetadata().getContinue(), null);
+            return new SecretsPage(secrets, nextContinueToken);
         } catch (ApiException e) {
+            if (e.getCode() == 410) {
+                log.error("Secrets list continue token expired");
+                throw new KubeApiException("Secrets list continue token expired, the listing must be restarted", e);
+            }
             if (e.getCode() != 404) {
                 log.error(DEFAULT_ERR_MESSAGE + e.getResponseBody());
                 throw new KubeApiException(DEFAULT_ERR_MESSAGE + e.getResponseBody(), e);
@@ -125,57 +180,83 @@ public ConcurrentMap<String, ConcurrentMap<String, String>> getAllSecretsWithLab
             throw new KubeApiException(DEFAULT_ERR_MESSAGE + e.getMessage(), e);
         }
 
-        return secrets;
+        return new SecretsPage(Collections.emptyList(), null);
+    }
+
+    /**
+     * Names-only view of the secret data, values are not decoded
+     */
+    public static Set<String> getSecretDataKeys(V1Secret secret) {
+        return secret.getData() == null ? Collections.emptySet() : new HashSet<>(secret.getData().keySet());
+    }
+
+    /**
+     * Approximate size of the secret data in the API request body: keys with base64 encoded values and JSON syntax
+     */
+    public static long getSecretDataSize(V1Secret secret) {
+        if (secret.getData() == null) {
+            return 0;
+        }
+        long size = 0;
+        for (Map.Entry<String, byte[]> entry : secret.getData().entrySet()) {
+            size += getDataEntrySize(entry.getKey(), entry.getValue() == null ? 0 : entry.getValue().length);
+        }
+        return size;
+    }
+
+    public static long getDataEntrySize(String key, int valueLength) {
+        return key.length() + 4L * ((valueLength + 2) / 3) + DATA_ENTRY_OVERHEAD;
+    }
+
+    public static ConcurrentMap<String, String> getSecretData(V1Secret secret) {
+        ConcurrentMap<String, String> dataMap = new ConcurrentHashMap<>();
+        if (secret.getData() != null) {
+            secret.getData().forEach((k, v) -> dataMap.put(k, new String(v)));
+        }
+        return dataMap;
     }
 
     @Nullable
     public V1Secret getSecretObjectByName(String name) {
+        return findSecretObjectByName(name).orElse(null);
+    }
+
+    /**
+     * Response status is checked before deserialization, so an absent secret is returned
+     * as an empty result without raising {@link ApiException}
+     */
+    public Optional<V1Secret> findSecretObjectByName(String name) {
         try {
-            return coreApi.readNamespacedSecret(name, namespace, null);
-        } catch (ApiException e) {
-            if (e.getCode() != 404) {
-                log.error(DEFAULT_ERR_MESSAGE + e.getResponseBody());
-                throw new KubeApiException(DEFAULT_ERR_MESSAGE + e.getResponseBody(), e);
+            Call call = coreApi.readNamespacedSecretCall(name, namespace, null, null);
+            try (Response response = call.execute()) {
+                if (response.code() == 404) {
+                    return Optional.empty();
+                }
+                return Optional.ofNullable(coreApi.getApiClient().handleResponse(response, V1Secret.class));
             }
-
-            return null;
+        } catch (ApiException e) {
+            log.error(DEFAULT_ERR_MESSAGE + e.getResponseBody());
+            throw new KubeApiException(DEFAULT_ERR_MESSAGE + e.getResponseBody(), e);
         } catch (Exception e) {
             log.error(DEFAULT_ERR_MESSAGE + e.getMessage());
             throw new KubeApiException(DEFAULT_ERR_MESSAGE + e.getMessage(), e);
         }
     }
 
+    public Optional<ConcurrentMap<String, String>> findSecretByName(String name) {
+        return findSecretObjectByName(name).map(KubeOperator::getSecretData);
+    }
+
     public ConcurrentMap<String, String> getSecretByName(String name) {
         return getSecretByName(name, true);
     }
 
     public ConcurrentMap<String, String> getSecretByName(String name, boolean failIfNotExist) throws KubeApiException {
-        ConcurrentMap<String, String> secretMap = new ConcurrentHashMap<>();
-
-        try {
-            V1Secret secret = coreApi.readNamespacedSecret(
-                    name,
-                    namespace,
-                    null
-            );
-
-            if (secret.getData() != null) {
-                secret.getData().forEach((k, v) -> secretMap.put(k, new String(v)));
-            }
-        } catch (ApiException e) {
-            if (failIfNotExist || e.getCode() != 404) {
-                if (e.getCode() == 404) {
-                    throw new KubeApiNotFoundException("Kube secret not found", e);
-                }
-
-                log.error(DEFAULT_ERR_MESSAGE + e.getResponseBody());
-                throw new KubeApiException(DEFAULT_ERR_MESSAGE + e.getResponseBody(), e);
-            }
-        } catch (Exception e) {
-            log.error(DEFAULT_ERR_MESSAGE + e.getMessage());
-            throw new KubeApiException(DEFAULT_ERR_MESSAGE + e.getMessage(), e);
+        Optional<ConcurrentMap<String, String>> secretMap = findSecretByName(name);
+        if (secretMap.isEmpty() && failIfNotExist) {
+            throw new KubeApiNotFoundException("Kube secret not found");
         }
-        return secretMap;
+        return secretMap.orElseGet(ConcurrentHashMap::new);
     }
 
     public boolean secretExists(String name) throws KubeApiException {
@@ -241,36 +322,42 @@ public void patchSecret(String secretName, JsonPatch patch) {
         }
     }
 
-    public ConcurrentMap<String, String> addSecretData(String secretName, Map<String, String> data, boolean init) {
-        List<JsonPatch> patches = new ArrayList<>();
-        if (init) {
-            patches.add(new JsonPatch(PatchOperation.ADD, SECRET_DATA_PATH, Collections.emptyMap()));
-        }
+    public V1Secret addSecretData(String secretName, Map<String, String> data, boolean init) {
+        return addSecretData(secretName, data, init, null);
+    }
 
-        for (Map.Entry<String, String> entry : data.entrySet()) {
-            patches.add(new JsonPatch(PatchOperation.ADD, getDataKeyPath(entry.getKey()), entry.getValue().getBytes()));
-        }
+    /**
+     * @param resourceVersion expected resourceVersion of the secret, the patch is applied without the test if null
+     * @throws KubeApiConflictException if the secret was modified after it was read
+     */
+    public V1Secret addSecretData(String secretName, Map<String, String> data, boolean init,
+                                  @Nullable String resourceVersion) {
+        return patchSecretData(secretName, buildAddPatches(data, init), resourceVersion);
+    }
 
-        return updateSecretData(secretName, patches);
+    public V1Secret removeSecretData(String secretName, Set<String> keys) {
+        return removeSecretData(secretName, keys, null);
     }
 
-    public ConcurrentMap<String, String> removeSecretData(String secretName, Set<String> keys) {
-        List<JsonPatch> patches = keys.stream()
-                .map(key -> new JsonPatch(PatchOperation.REMOVE, getDataKeyPath(key), null))
-                .toList();
-        return updateSecretData(secretName, patches);
+    public V1Secret removeSecretData(String secretName, Set<String> keys, @Nullable String resourceVersion) {
+        return patchSecretData(secretName, buildRemovePatches(keys), resourceVersion);
     }
 
     public Call removeSecretDataAsync(String secretName, Set<String> keys, SecretUpdateCallback callback) {
-        List<JsonPatch> patches = keys.stream()
-                .map(key -> new JsonPatch(PatchOperation.REMOVE, getDataKeyPath(key), null))
-                .toList();
+        return removeSecretDataAsync(secretName, keys, null, callback);
+    }
 
+    /**
+     * Failed resourceVersion test is passed to the callback as is, see {@link #isResourceVersionConflict(ApiException)}
+     */
+    public Call removeSecretDataAsync(String secretName, Set<String> keys, @Nullable String resourceVersion,
+                                      ApiCallback<V1Secret> callback) {
         try {
             return coreApi.patchNamespacedSecretAsync(
                     secretName,
                     namespace,
-                    new V1Patch(objectMapper.writeValueAsString(patches)),
+                    new V1Patch(objectMapper.writeValueAsString(
+                            withResourceVersionTest(buildRemovePatches(keys), resourceVersion))),
                     null,
                     null,
                     null,
@@ -287,37 +374,61 @@ public Call removeSecretDataAsync(String secretName, Set<String> keys, SecretUpd
         }
     }
 
+    /**
+     * Creates the secret or replaces its labels and data with a server-side apply,
+     * data keys written by other field managers are kept
+     */
     public void setSecretByName(String name, Pair<String, String> label, Map<String, String> data, boolean failIfExists)
             throws KubeApiException {
+        if (failIfExists) {
+            createSecret(name, label, data);
+        } else {
+            applySecret(name, label, data == null ? Collections.emptyMap() : data);
+        }
+    }
+
+    /**
+     * Idempotent create-or-update in a single request. Labels and data keys are owned by {@link #FIELD_MANAGER},
+     * a key applied before and missing in the next apply is removed, so the data is omitted if null
+     * to apply labels only and keep the existing data unchanged.
+     */
+    public AppliedSecret applySecret(String name, Pair<String, String> label, @Nullable Map<String, String> data) {
+        V1Secret secret = new V1Secret();
+        secret.setApiVersion("v1");
+        secret.setKind("Secret");
+        V1ObjectMeta metadata = new V1ObjectMeta();
+        metadata.setName(name);
+        metadata.setNamespace(namespace);
+        metadata.setLabels(Collections.singletonMap(label.getKey(), label.getValue()));
+        secret.setMetadata(metadata);
+        if (data != null) {
+            secret.setData(data.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getBytes())));
+        }
+
         try {
-            Map<String, byte[]> byteData = new HashMap<>();
-            if (data != null) {
-                for (Map.Entry<String, String> entry : data.entrySet()) {
-                    byteData.put(entry.getKey(), entry.getValue().getBytes());
-                }
-            }
-            V1Secret secret = new V1Secret();
-            V1ObjectMeta metadata = new V1ObjectMeta();
-            metadata.setName(name);
-            metadata.setNamespace(namespace);
-            metadata.setLabels(Collections.singletonMap(label.getKey(), label.getValue()));
-            secret.setMetadata(metadata);
-            secret.setData(byteData);
-
-            if (failIfExists) {
-                coreApi.createNamespacedSecret(namespace, secret, null, null, null, null);
-            } else {
-                if (secretExists(name)) {
-                    coreApi.replaceNamespacedSecret(name, namespace, secret, null, null, null, null);
-                } else {
-                    coreApi.createNamespacedSecret(namespace, secret, null, null, null, null);
-                }
+            ApiClient apiClient = coreApi.getApiClient();
+            String body = apiClient.getJSON().serialize(secret);
+            Call call = coreApi.patchNamespacedSecretCall(
+                    name,
+                    namespace,
+                    new V1Patch(body),
+                    null,
+                    null,
+                    FIELD_MANAGER,
+                    null,
+                    true,
+                    null
+            );
+            // generated client sends the first supported patch content type, the apply one is set explicitly
+            Request request = call.request().newBuilder()
+                    .patch(RequestBody.create(body, MediaType.get(V1Patch.PATCH_FORMAT_APPLY_YAML)))
+                    .build();
+            try (Response response = apiClient.getHttpClient().newCall(request).execute()) {
+                V1Secret applied = apiClient.handleResponse(response, V1Secret.class);
+                return new AppliedSecret(applied, response.code() == 201);
             }
         } catch (ApiException e) {
-            if (e.getCode() == 409) {
-                throw new SecretAlreadyExists();
-            }
-
             log.error(DEFAULT_ERR_MESSAGE + e.getResponseBody());
             throw new KubeApiException(DEFAULT_ERR_MESSAGE + e.getResponseBody(), e);
         } catch (Exception e) {
@@ -326,43 +437,90 @@ public void setSecretByName(String name, Pair<String, String> label, Map<String,
         }
     }
 
-    public ConcurrentMap<String, String> updateSecretData(String secretName, Map<String, String> data) {
+    public V1Secret updateSecretData(String secretName, Map<String, String> data) {
+        return updateSecretData(secretName, data, null);
+    }
+
+    public V1Secret updateSecretData(String secretName, Map<String, String> data, @Nullable String resourceVersion) {
         List<JsonPatch> patches = data.entrySet().stream()
                 .map(dataEntry -> new JsonPatch(PatchOperation.REPLACE, getDataKeyPath(dataEntry.getKey()), dataEntry.getValue().getBytes()))
                 .toList();
-        return updateSecretData(secretName, patches);
+        return patchSecretData(secretName, patches, resourceVersion);
     }
 
-    private ConcurrentMap<String, String> updateSecretData(String secretName, List<JsonPatch> patches) {
-        ConcurrentMap<String, String> secretMap = new ConcurrentHashMap<>();
-
+    /**
+     * Patch is sent once, a conflict is not retried here: the patches were built from the secret the caller read,
+     * so the caller re-reads the secret and validates its write again
+     *
+     * @return patched secret with the new resourceVersion
+     * @throws KubeApiConflictException if the resourceVersion test failed
+     */
+    private V1Secret patchSecretData(String secretName, List<JsonPatch> patches, @Nullable String resourceVersion) {
         try {
-            V1Secret secret = coreApi.patchNamespacedSecret(
+            return coreApi.patchNamespacedSecret(
                     secretName,
                     namespace,
-                    new V1Patch(objectMapper.writeValueAsString(patches)),
+                    new V1Patch(objectMapper.writeValueAsString(withResourceVersionTest(patches, resourceVersion))),
                     null,
                     null,
                     null,
                     null,
                     null
             );
-
-            if (secret.getData() != null) {
-                secret.getData().forEach((k, v) -> secretMap.put(k, new String(v)));
-            }
         } catch (JsonProcessingException e) {
             log.error("Unable to serialize secret patch request", e);
             throw new KubeApiException("Unable to serialize secret patch request", e);
         } catch (ApiException e) {
+            if (resourceVersion != null && isResourceVersionConflict(e)) {
+                log.debug("Secret {} was modified concurrently, expected resourceVersion {}", secretName, resourceVersion);
+                throw new KubeApiConflictException("Secret " + secretName + " was modified concurrently", e);
+            }
             log.error(DEFAULT_ERR_MESSAGE + e.getResponseBody());
             throw new KubeApiException(DEFAULT_ERR_MESSAGE + e.getResponseBody(), e);
         }
+    }
+
+    private static List<JsonPatch> buildAddPatches(Map<String, String> data, boolean init) {
+        List<JsonPatch> patches = new ArrayList<>();
+        if (init) {
+            patches.add(new JsonPatch(PatchOperation.ADD, SECRET_DATA_PATH, Collections.emptyMap()));
+        }
+
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            patches.add(new JsonPatch(PatchOperation.ADD, getDataKeyPath(entry.getKey()), entry.getValue().getBytes()));
+        }
+        return patches;
+    }
+
+    private static List<JsonPatch> buildRemovePatches(Set<String> keys) {
+        return keys.stream()
+                .map(key -> new JsonPatch(PatchOperation.REMOVE, getDataKeyPath(key), null))
+                .toList();
+    }
+
+    /**
+     * Test operation goes first, so the whole patch is rejected if the secret was changed after it was read
+     */
+    private static List<JsonPatch> withResourceVersionTest(List<JsonPatch> patches, @Nullable String resourceVersion) {
+        if (resourceVersion == null) {
+            return patches;
+        }
+        List<JsonPatch> testedPatches = new ArrayList<>(patches.size() + 1);
+        testedPatches.add(new JsonPatch(PatchOperation.TEST, SECRET_RESOURCE_VERSION_PATH, resourceVersion));
+        testedPatches.addAll(patches);
+        return testedPatches;
+    }
 
-        return secretMap;
+    /**
+     * Failed test operation is reported as an invalid patch, other invalid patches, e.g. a removed key
+     * or a value mentioning "test", are not conflicts
+     */
+    public static boolean isResourceVersionConflict(ApiException e) {
+        return e.getCode() == 409
+                || (e.getCode() == 422 && StringUtils.contains(e.getResponseBody(), RESOURCE_VERSION_TEST_FAILURE));
     }
 
-    private String getDataKeyPath(String key) {
+    private static String getDataKeyPath(String key) {
         return SECRET_DATA_PATH + "/" + key;
     }
 }
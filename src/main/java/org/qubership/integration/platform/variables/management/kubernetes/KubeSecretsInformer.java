@@ -0,0 +1,174 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.kubernetes;
+
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformerFactory;
+import io.kubernetes.client.informer.cache.Lister;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Secret;
+import io.kubernetes.client.openapi.models.V1SecretList;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Watch-based cache of the labelled secrets, reads are served from the informer indexer
+ * without requests to the API server
+ */
+@Slf4j
+public class KubeSecretsInformer {
+    private final SharedInformerFactory informerFactory;
+    private final SharedIndexInformer<V1Secret> informer;
+    private final Lister<V1Secret> lister;
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    /**
+     * @param watchClient client without read timeout, watch requests are held open by the API server
+     */
+    public KubeSecretsInformer(ApiClient watchClient,
+                               String namespace,
+                               Pair<String, String> label,
+                               Duration resyncPeriod) {
+        CoreV1Api coreApi = new CoreV1Api(watchClient);
+        String labelSelector = label.getKey() + "=" + label.getValue();
+
+        this.informerFactory = new SharedInformerFactory(watchClient);
+        this.informer = informerFactory.sharedIndexInformerFor(
+                params -> coreApi.listNamespacedSecretCall(
+                        namespace,
+                        null,
+                        null,
+                        null,
+                        null,
+                        labelSelector,
+                        null,
+                        params.resourceVersion,
+                        null,
+                        null,
+                        params.timeoutSeconds,
+                        params.watch,
+                        null
+                ),
+                V1Secret.class,
+                V1SecretList.class,
+                resyncPeriod.toMillis());
+        this.informer.addEventHandler(new ResourceEventHandler<>() {
+            @Override
+            public void onAdd(V1Secret secret) {
+                signalChange();
+            }
+
+            @Override
+            public void onUpdate(V1Secret oldSecret, V1Secret newSecret) {
+                signalChange();
+            }
+
+            @Override
+            public void onDelete(V1Secret secret, boolean deletedFinalStateUnknown) {
+                signalChange();
+            }
+        });
+        this.lister = new Lister<>(informer.getIndexer(), namespace);
+    }
+
+    public void start() {
+        informerFactory.startAllRegisteredInformers();
+        log.info("Kubernetes secrets informer started");
+    }
+
+    public void stop() {
+        informerFactory.stopAllRegisteredInformers();
+        log.info("Kubernetes secrets informer stopped");
+    }
+
+    /**
+     * Until the initial list is received the cache must not be used for reads
+     */
+    public boolean hasSynced() {
+        return informer.hasSynced();
+    }
+
+    public List<V1Secret> list() {
+        return lister.list();
+    }
+
+    public @Nullable V1Secret get(String name) {
+        return lister.get(name);
+    }
+
+    /**
+     * Blocks until the cached secret has the written resourceVersion, or any version other than the one
+     * before the write, e.g. a concurrent write observed after ours
+     *
+     * @param previousResourceVersion version the write was based on, null to wait for the written version only
+     * @return false if the version was not observed within the timeout
+     */
+    public boolean awaitResourceVersion(String name, String resourceVersion, @Nullable String previousResourceVersion,
+                                        Duration timeout) {
+        long deadlineNanos = System.nanoTime() + timeout.toNanos();
+        lock.lock();
+        try {
+            while (!isObserved(name, resourceVersion, previousResourceVersion)) {
+                long remainingNanos = deadlineNanos - System.nanoTime();
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                changed.awaitNanos(remainingNanos);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * resourceVersion is opaque, versions are compared for equality only
+     */
+    private boolean isObserved(String name, String resourceVersion, @Nullable String previousResourceVersion) {
+        V1Secret secret = lister.get(name);
+        if (secret == null || secret.getMetadata() == null || secret.getMetadata().getResourceVersion() == null) {
+            return false;
+        }
+
+        String cachedVersion = secret.getMetadata().getResourceVersion();
+        return cachedVersion.equals(resourceVersion)
+                || (previousResourceVersion != null && !cachedVersion.equals(previousResourceVersion));
+    }
+
+    private void signalChange() {
+        lock.lock();
+        try {
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
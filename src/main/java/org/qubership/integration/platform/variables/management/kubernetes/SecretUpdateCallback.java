@@ -24,25 +24,18 @@
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 
 public class SecretUpdateCallback implements ApiCallback<V1Secret> {
 
-    private final CompletableFuture<Map<String, String>> future;
+    private final CompletableFuture<V1Secret> future;
 
-    public SecretUpdateCallback(@NonNull CompletableFuture<Map<String, String>> future) {
+    public SecretUpdateCallback(@NonNull CompletableFuture<V1Secret> future) {
         this.future = future;
     }
 
     @Override
     public void onSuccess(V1Secret secret, int statusCode, Map<String, List<String>> responseHeaders) {
-        ConcurrentMap<String, String> secretDataMap = new ConcurrentHashMap<>();
-        if (secret.getData() != null) {
-            secret.getData().forEach((k, v) -> secretDataMap.put(k, new String(v)));
-        }
-
-        future.complete(secretDataMap);
+        future.complete(secret);
     }
 
     @Override
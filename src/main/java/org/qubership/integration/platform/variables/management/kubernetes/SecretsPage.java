@@ -0,0 +1,29 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.qubership.integration.platform.variables.management.kubernetes;
+
+import io.kubernetes.client.openapi.models.V1Secret;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Page of a secrets list, continueToken is null on the last page
+ */
+public record SecretsPage(List<V1Secret> secrets, @Nullable String continueToken) {
+}
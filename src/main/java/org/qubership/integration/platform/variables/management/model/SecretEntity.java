@@ -19,9 +19,10 @@
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.jackson.Jacksonized;
+import org.springframework.lang.Nullable;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Collections;
+import java.util.Set;
 
 @Getter
 @Builder
@@ -29,6 +30,18 @@
 public class SecretEntity {
 
     private String secretName;
+    /**
+     * Kubernetes resourceVersion of the secret, null if the secret was changed locally and not re-read yet
+     */
+    @Nullable
+    private String resourceVersion;
+    /**
+     * Approximate size of the secret data in the API request body, used to place variables into shards
+     */
+    private long dataSize;
+    /**
+     * Values are not kept, read APIs return names only
+     */
     @Builder.Default
-    private ConcurrentMap<String, String> variables = new ConcurrentHashMap<>();
+    private Set<String> variablesNames = Collections.emptySet();
 }
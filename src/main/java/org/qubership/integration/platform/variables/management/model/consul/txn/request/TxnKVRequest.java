@@ -16,6 +16,7 @@
 
 package org.qubership.integration.platform.variables.management.model.consul.txn.request;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Getter;
@@ -40,9 +41,18 @@ public class TxnKVRequest {
     @JsonProperty("Value")
     private String value;
 
-    public TxnKVRequest(TxnVerb verb, String key, @Nullable String value) {
+    /**
+     * ModifyIndex for {@link TxnVerb#CAS} verb
+     */
+    @Nullable
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonProperty("Index")
+    private Long index;
+
+    public TxnKVRequest(TxnVerb verb, String key, @Nullable String value, @Nullable Long index) {
         this.verb = verb;
         this.key = key;
+        this.index = index;
         setValue(value);
     }
 
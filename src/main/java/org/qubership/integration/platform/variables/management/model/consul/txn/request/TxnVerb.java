@@ -23,6 +23,16 @@ public enum TxnVerb {
     SET,
     @JsonProperty("get")
     GET,
+    /**
+     * All keys with the prefix, no error if there are none
+     */
+    @JsonProperty("get-tree")
+    GET_TREE,
     @JsonProperty("delete")
     DELETE,
+    /**
+     * Set only if Index matches the ModifyIndex of the key, index 0 - set only if the key does not exist
+     */
+    @JsonProperty("cas")
+    CAS,
 }
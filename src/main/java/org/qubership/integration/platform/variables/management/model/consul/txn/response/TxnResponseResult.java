@@ -18,7 +18,7 @@
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
-import org.qubership.integration.platform.variables.management.model.consul.txn.KVResponse;
+import org.qubership.integration.platform.variables.management.model.consul.txn.KeyResponse;
 
 @Getter
 @Setter
@@ -27,5 +27,5 @@
 @Builder
 public class TxnResponseResult {
     @JsonProperty("KV")
-    private KVResponse kv;
+    private KeyResponse kv;
 }
@@ -24,7 +24,8 @@
 public enum PatchOperation {
     ADD("add"),
     REPLACE("replace"),
-    REMOVE("remove");
+    REMOVE("remove"),
+    TEST("test");
 
     private final String value;
 
@@ -22,7 +22,9 @@
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.qubership.integration.platform.variables.management.consul.ConsulException;
+import org.qubership.integration.platform.variables.management.consul.ConsulUnavailableException;
 import org.qubership.integration.platform.variables.management.consul.TxnConflictException;
+import org.qubership.integration.platform.variables.management.kubernetes.KubeApiConflictException;
 import org.qubership.integration.platform.variables.management.kubernetes.KubeApiException;
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
@@ -60,6 +62,11 @@ public ResponseEntity<ExceptionDTO> handleApiException(VariablesManagementRuntim
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(getExceptionDTO(exception));
     }
 
+    @ExceptionHandler(KubeApiConflictException.class)
+    public ResponseEntity<ExceptionDTO> handleKubeApiConflictException(KubeApiConflictException exception) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(getExceptionDTOWithoutStacktrace(exception));
+    }
+
     @ExceptionHandler(EmptyVariableFieldException.class)
     public ResponseEntity<ExceptionDTO> handleEmptyVariableFieldException(EmptyVariableFieldException exception) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(getExceptionDTO(exception));
@@ -70,6 +77,11 @@ public ResponseEntity<ExceptionDTO> handleMalformedVariableNameException(Malform
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(getExceptionDTO(exception));
     }
 
+    @ExceptionHandler(SecuredVariableTooLargeException.class)
+    public ResponseEntity<ExceptionDTO> handleSecuredVariableTooLargeException(SecuredVariableTooLargeException exception) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(getExceptionDTO(exception));
+    }
+
     @ExceptionHandler(SecuredVariablesException.class)
     public ResponseEntity<ExceptionDTO> handleSecuredVariablesException(SecuredVariablesException exception) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(getExceptionDTO(exception));
@@ -80,6 +92,11 @@ public ResponseEntity<ExceptionDTO> handleConsulException(ConsulException except
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(getExceptionDTOWithoutStacktrace(exception));
     }
 
+    @ExceptionHandler(ConsulUnavailableException.class)
+    public ResponseEntity<ExceptionDTO> handleConsulUnavailableException(ConsulUnavailableException exception) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(getExceptionDTOWithoutStacktrace(exception));
+    }
+
     @ExceptionHandler(TxnConflictException.class)
     public ResponseEntity<ExceptionDTO> handleTxnConflictException(TxnConflictException exception) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(getExceptionDTOWithoutStacktrace(exception));
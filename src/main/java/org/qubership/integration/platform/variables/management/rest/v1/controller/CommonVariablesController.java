@@ -24,6 +24,7 @@
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
 import org.qubership.integration.platform.variables.management.rest.v1.dto.StringResponse;
 import org.qubership.integration.platform.variables.management.rest.v1.dto.variables.ImportVariableDTO;
 import org.qubership.integration.platform.variables.management.rest.v1.dto.variables.ImportVariablePreview;
@@ -52,6 +53,8 @@
 @Validated
 @Tag(name = "common-variables-controller", description = "Common Variables Controller")
 public class CommonVariablesController {
+    private static final String VARIABLES_ETAG_PREFIX = "cv-";
+
     private final CommonVariablesService commonVariablesService;
     private final CommonVariablesMapper commonVariablesMapper;
 
@@ -62,13 +65,27 @@ public CommonVariablesController(CommonVariablesService commonVariablesService,
         this.commonVariablesMapper = commonVariablesMapper;
     }
 
-    @Operation(description = "Get all common variables")
+    @Operation(description = "Get all common variables, supports conditional request with If-None-Match header")
     @GetMapping()
     public ResponseEntity<Map<String, String>> getVariables() {
         if (log.isDebugEnabled()) {
             log.debug("Request to get common variables");
         }
-        return ResponseEntity.ok(commonVariablesService.getVariables());
+
+        // ETag is derived from consul index, 304 Not Modified is sent by spring if it matches If-None-Match
+        Pair<Long, Map<String, String>> variables = commonVariablesService.getVariablesWithIndex();
+        return variables.getLeft() > 0
+                ? ResponseEntity.ok().eTag(VARIABLES_ETAG_PREFIX + variables.getLeft()).body(variables.getRight())
+                : ResponseEntity.ok(variables.getRight());
+    }
+
+    @Operation(description = "Get names of all common variables without values")
+    @GetMapping("/names")
+    public ResponseEntity<Set<String>> getVariablesNames() {
+        if (log.isDebugEnabled()) {
+            log.debug("Request to get common variables names");
+        }
+        return ResponseEntity.ok(commonVariablesService.getVariablesNames());
     }
 
     @Operation(extensions = @Extension(properties = {@ExtensionProperty(name = "x-api-kind", value = "bwc")}),
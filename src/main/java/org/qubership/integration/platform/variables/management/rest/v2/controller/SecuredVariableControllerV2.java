@@ -20,10 +20,12 @@
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 import org.qubership.integration.platform.variables.management.rest.v2.dto.variables.SecretErrorResponse;
 import org.qubership.integration.platform.variables.management.rest.v2.dto.variables.SecretResponse;
+import org.qubership.integration.platform.variables.management.rest.v2.dto.variables.SecretsPageResponse;
 import org.qubership.integration.platform.variables.management.rest.v2.dto.variables.SecuredVariablesRequest;
 import org.qubership.integration.platform.variables.management.rest.v2.mapper.SecretResponseMapper;
 import org.qubership.integration.platform.variables.management.service.SecuredVariableService;
@@ -33,6 +35,7 @@
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -54,15 +57,34 @@ public SecuredVariableControllerV2(SecuredVariableService securedVariableService
         this.secretResponseMapper = secretResponseMapper;
     }
 
-    @Operation(description = "Get all secured variables names from all secrets")
+    @Operation(description = "Get all secured variables names from all secrets, "
+            + "supports conditional request with If-None-Match header")
     @GetMapping()
     public ResponseEntity<List<SecretResponse>> getVariables() {
         if (log.isDebugEnabled()) {
             log.debug("Request to get secured variables from all secrets");
         }
 
-        Map<String, Set<String>> secrets = securedVariableService.getAllSecretsVariablesNames();
-        return ResponseEntity.ok(secretResponseMapper.asResponse(secrets));
+        // ETag is derived from secrets resourceVersion, 304 Not Modified is sent by spring if it matches If-None-Match
+        Pair<String, Map<String, Set<String>>> secrets = securedVariableService.getAllSecretsVariablesNamesWithVersion();
+        return secrets.getLeft() != null
+                ? ResponseEntity.ok().eTag(secrets.getLeft()).body(secretResponseMapper.asResponse(secrets.getRight()))
+                : ResponseEntity.ok(secretResponseMapper.asResponse(secrets.getRight()));
+    }
+
+    @Operation(description = "Get a page of secured variables names from secrets, "
+            + "the cursor of the response is passed to get the next page")
+    @GetMapping(params = "limit")
+    public ResponseEntity<SecretsPageResponse> getVariablesPage(
+            @RequestParam @Min(1) @Parameter(description = "Max number of secrets in the page") int limit,
+            @RequestParam(required = false) @Parameter(description = "Cursor of the page, absent for the first page") String cursor
+    ) {
+        if (log.isDebugEnabled()) {
+            log.debug("Request to get a page of secured variables from secrets, limit {}", limit);
+        }
+
+        Pair<Map<String, Set<String>>, String> page = securedVariableService.getSecretsVariablesNamesPage(limit, cursor);
+        return ResponseEntity.ok(new SecretsPageResponse(secretResponseMapper.asResponse(page.getLeft()), page.getRight()));
     }
 
     @Operation(description = "Get all secured variables names from specified secret")
@@ -84,6 +106,26 @@ public ResponseEntity<List<SecretResponse>> addVariables(@Valid @RequestBody Sec
         return ResponseEntity.ok(secretResponseMapper.asResponse(secrets));
     }
 
+    @Operation(description = "Add or update secured variables in multiple secrets, secrets are written concurrently")
+    @PostMapping("/batch")
+    public ResponseEntity<?> addVariablesToMultipleSecrets(
+            @RequestBody @Parameter(description = "List of secrets with secured variables") List<@Valid SecuredVariablesRequest> requests
+    ) {
+        log.info("Request to add secured variables to multiple secrets");
+
+        Map<String, Map<String, String>> variablesPerSecret = new HashMap<>();
+        for (SecuredVariablesRequest request : requests) {
+            variablesPerSecret.computeIfAbsent(request.getSecretName(), name -> new HashMap<>())
+                    .putAll(request.getVariables());
+        }
+
+        Pair<Map<String, Set<String>>, List<SecretErrorResponse>> result =
+                securedVariableService.addVariablesForMultipleSecrets(variablesPerSecret, false);
+        return result.getRight().isEmpty()
+                ? ResponseEntity.ok(secretResponseMapper.asResponse(result.getLeft()))
+                : ResponseEntity.status(HttpStatus.MULTI_STATUS).body(result.getRight());
+    }
+
     @Operation(description = "Update secured variables")
     @PatchMapping()
     public ResponseEntity<SecretResponse> updateVariable(@RequestBody SecuredVariablesRequest updateRequest) {
@@ -24,7 +24,9 @@
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.qubership.integration.platform.variables.management.consul.ConsulConsistencyMode;
 import org.qubership.integration.platform.variables.management.consul.ConsulService;
+import org.qubership.integration.platform.variables.management.model.consul.KVWriteStatus;
 import org.qubership.integration.platform.variables.management.model.exportimport.instructions.PerformInstructionsResult;
 import org.qubership.integration.platform.variables.management.persistence.configs.entity.actionlog.ActionLog;
 import org.qubership.integration.platform.variables.management.persistence.configs.entity.actionlog.EntityType;
@@ -40,6 +42,7 @@
 import org.qubership.integration.platform.variables.management.util.ExportImportUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.multipart.MultipartFile;
@@ -80,6 +83,12 @@ public class CommonVariablesService {
     private final ConsulService consulService;
     private final ImportInstructionsService importInstructionsService;
 
+    @Value("${consul.consistency.export}")
+    private ConsulConsistencyMode exportConsistency;
+
+    @Value("${consul.consistency.import-preview}")
+    private ConsulConsistencyMode importPreviewConsistency;
+
     @Autowired
     public CommonVariablesService(
             ActionsLogService actionLogger,
@@ -99,6 +108,14 @@ public Map<String, String> getVariables() {
         return consulService.getAllCommonVariables();
     }
 
+    public Pair<Long, Map<String, String>> getVariablesWithIndex() {
+        return consulService.getAllCommonVariablesWithIndex();
+    }
+
+    public Set<String> getVariablesNames() {
+        return consulService.getCommonVariablesNames();
+    }
+
     public String addVariable(String key, String value) {
 
         if (!VARIABLE_NAME_PATTERN_PREDICATE.test(key)) {
@@ -106,25 +123,41 @@ public String addVariable(String key, String value) {
         }
 
         Set<String> securedVariablesNames = securedVariableService.getVariablesForDefaultSecret(false);
-        ImportVariableDTO commonVariable = checkAndMapVariable(key, value, securedVariablesNames, false);
-        consulService.updateCommonVariable(key, value);
-        return commonVariable.getName();
+        validateVariable(key, securedVariablesNames);
+
+        KVWriteStatus status = consulService.upsertCommonVariable(key, value);
+        logCommonVariableAction(key, status == KVWriteStatus.UPDATED ? LogOperation.UPDATE : LogOperation.CREATE);
+        return key;
     }
 
+    /**
+     * All variables are validated before any write. Existence of the variables is resolved
+     * by the same consul write pipeline, so no per-variable requests are made.
+     */
     public List<ImportVariableDTO> addVariables(Map<String, String> variables, boolean importMode) {
-        List<ImportVariableDTO> importDTOs = Collections.emptyList();
-        if (!variables.isEmpty()) {
-            Set<String> securedVariablesNames = securedVariableService.getVariablesForDefaultSecret(false);
-
-            importDTOs = variables.entrySet().stream()
-                    .map(entry -> checkAndMapVariable(entry.getKey(), entry.getValue(), securedVariablesNames, importMode))
-                    .toList();
-            consulService.updateCommonVariables(variables);
+        if (variables.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<String> securedVariablesNames = securedVariableService.getVariablesForDefaultSecret(false);
+        variables.keySet().forEach(key -> validateVariable(key, securedVariablesNames));
+
+        Map<String, KVWriteStatus> statuses = consulService.upsertCommonVariables(variables);
+
+        List<ImportVariableDTO> importDTOs = new ArrayList<>(variables.size());
+        for (Map.Entry<String, String> entry : variables.entrySet()) {
+            boolean exists = statuses.get(entry.getKey()) == KVWriteStatus.UPDATED;
+            ImportVariableDTO variable = new ImportVariableDTO(entry.getKey(), entry.getValue());
+            variable.setStatus(exists ? ImportVariableStatus.UPDATED : ImportVariableStatus.CREATED);
+            importDTOs.add(variable);
+
+            LogOperation operation = importMode ? LogOperation.IMPORT : exists ? LogOperation.UPDATE : LogOperation.CREATE;
+            logCommonVariableAction(entry.getKey(), operation);
         }
         return importDTOs;
     }
 
-    private ImportVariableDTO checkAndMapVariable(String key, String value, Set<String> securedVariablesNames, boolean importMode) {
+    private void validateVariable(String key, Set<String> securedVariablesNames) {
         if (securedVariablesNames.contains(key)) {
             throw new EntityExistsException("Secured variable with name " + key + " already exists");
         }
@@ -136,16 +169,6 @@ private ImportVariableDTO checkAndMapVariable(String key, String value, Set<Stri
         if (!VARIABLE_NAME_PATTERN_PREDICATE.test(key)) {
             throw new MalformedVariableNameException(key);
         }
-
-        ImportVariableDTO variable = new ImportVariableDTO(key, value);
-
-        Pair<String, String> oldVar = consulService.getCommonVariable(key);
-        boolean exists = oldVar != null;
-        variable.setStatus(exists ? ImportVariableStatus.UPDATED : ImportVariableStatus.CREATED);
-        LogOperation operation = importMode ? LogOperation.IMPORT : exists ? LogOperation.UPDATE : LogOperation.CREATE;
-        logCommonVariableAction(key, operation);
-
-        return variable;
     }
 
     public void addVariablesUnlogged(Map<String, String> variables) {
@@ -159,8 +182,8 @@ public void deleteVariables(List<String> variablesNames) {
 
     public VariablesFileResponse exportVariables(List<String> variablesNames, boolean asArchive) {
         Map<String, String> variablesForExport = CollectionUtils.isEmpty(variablesNames)
-                ? consulService.getAllCommonVariables()
-                : consulService.getCommonVariables(variablesNames);
+                ? consulService.getAllCommonVariables(exportConsistency)
+                : consulService.getCommonVariables(variablesNames, exportConsistency);
 
         variablesForExport = variablesForExport.entrySet().stream()
                 .filter(name -> Arrays.stream(NON_EXPORTABLE_VARIABLES)
@@ -279,7 +302,7 @@ public List<ImportVariablePreview> importVariablePreview(MultipartFile file) {
             throw new RuntimeException("Unsupported file extension: " + fileExtension);
         }
 
-        Map<String, String> currentVariables = getVariables();
+        Map<String, String> currentVariables = consulService.getAllCommonVariables(importPreviewConsistency);
         return newVariables.entrySet().stream()
                 .map(entry -> new ImportVariablePreview(
                         entry.getKey(), entry.getValue(), currentVariables.getOrDefault(entry.getKey(), "")))
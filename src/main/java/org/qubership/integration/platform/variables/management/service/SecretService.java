@@ -24,6 +24,7 @@
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 import org.qubership.integration.platform.variables.management.kubernetes.KubeOperator;
+import org.qubership.integration.platform.variables.management.kubernetes.SecretAlreadyExists;
 import org.qubership.integration.platform.variables.management.persistence.configs.entity.actionlog.ActionLog;
 import org.qubership.integration.platform.variables.management.persistence.configs.entity.actionlog.EntityType;
 import org.qubership.integration.platform.variables.management.persistence.configs.entity.actionlog.LogOperation;
@@ -49,6 +50,7 @@ public class SecretService {
     private final Pair<String, String> kubeSecretsLabel;
 
     public static final String SECRET_NOT_FOUND_ERROR_MESSAGE_FORMAT = "Secret with name %s not found";
+    public static final String SECURED_SECRETS_LABEL_VALUE = "secured";
 
     protected final YAMLMapper yamlMapper;
     protected final ObjectMapper jsonMapper;
@@ -69,18 +71,29 @@ public SecretService(
         this.operator = operator;
         this.actionLogger = actionLogger;
         this.kubeSecretV2Name = kubeSecretV2Name;
-        this.kubeSecretsLabel = Pair.of(kubeSecretsLabel, "secured");
+        this.kubeSecretsLabel = Pair.of(kubeSecretsLabel, SECURED_SECRETS_LABEL_VALUE);
     }
 
     public void createSecuredVariablesSecret(String name) {
         createSecuredVariablesSecret(name, null);
     }
 
+    /**
+     * Single request without a preceding read: without variables only labels are applied, so an existing secret
+     * keeps its data; variables are written only to a new secret
+     */
     public void createSecuredVariablesSecret(String name, @Nullable Map<String, String> securedVariables) {
-        if (operator.getSecretObjectByName(name) != null) {
-            return;
+        if (securedVariables == null || securedVariables.isEmpty()) {
+            if (!operator.applySecret(name, kubeSecretsLabel, null).created()) {
+                return;
+            }
+        } else {
+            try {
+                operator.createSecret(name, kubeSecretsLabel, securedVariables);
+            } catch (SecretAlreadyExists e) {
+                return;
+            }
         }
-        operator.createSecret(name, kubeSecretsLabel, securedVariables);
 
         logCreateAction(EntityType.SECRET, name);
 
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.service;
+
+import io.kubernetes.client.openapi.models.V1Secret;
+import org.qubership.integration.platform.variables.management.kubernetes.KubeOperator;
+import org.qubership.integration.platform.variables.management.model.SecretEntity;
+import org.qubership.integration.platform.variables.management.rest.exception.SecuredVariableTooLargeException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Naming and routing of shard secrets. A logical secret is stored in the base secret and numbered shard secrets
+ * '{name}-shard-{n}', each variable is owned by exactly one shard.
+ */
+final class SecretShards {
+    private static final String SHARD_SUFFIX = "-shard-";
+    private static final Pattern SHARD_NAME_PATTERN = Pattern.compile("^(.+)" + SHARD_SUFFIX + "([1-9]\\d*)$");
+
+    private SecretShards() {
+    }
+
+    static String getShardName(String secretName, int shardIndex) {
+        return shardIndex == 0 ? secretName : secretName + SHARD_SUFFIX + shardIndex;
+    }
+
+    static String getLogicalSecretName(String shardName) {
+        Matcher matcher = SHARD_NAME_PATTERN.matcher(shardName);
+        return matcher.matches() ? matcher.group(1) : shardName;
+    }
+
+    static int getShardIndex(String shardName) {
+        Matcher matcher = SHARD_NAME_PATTERN.matcher(shardName);
+        return matcher.matches() ? Integer.parseInt(matcher.group(2)) : 0;
+    }
+
+    static boolean isShardOf(String shardName, String secretName) {
+        return shardName.equals(secretName) || secretName.equals(getLogicalSecretName(shardName));
+    }
+
+    /**
+     * Existing variables stay in their shards, new variables are placed into the first shard with enough free space.
+     * A new shard is appended if none of the shards fits the variable.
+     *
+     * @param shards shards of the logical secret ordered by index, base secret first
+     * @param secretObjects shards read with their data by name, the size of a replaced value is taken from them,
+     *                      the whole new value is counted if the shard is missing
+     * @return variables to write per shard name, shards missing in the given list have to be created
+     * @throws SecuredVariableTooLargeException if an updated variable does not fit into its shard anymore
+     *                                          or a new variable is larger than a shard
+     */
+    static Map<String, Map<String, String>> route(String secretName,
+                                                  List<SecretEntity> shards,
+                                                  Map<String, V1Secret> secretObjects,
+                                                  Map<String, String> variables,
+                                                  long maxShardSize) {
+        Map<String, Long> shardSizes = new LinkedHashMap<>();
+        int nextShardIndex = 0;
+        for (SecretEntity shard : shards) {
+            shardSizes.put(shard.getSecretName(), shard.getDataSize());
+            nextShardIndex = Math.max(nextShardIndex, getShardIndex(shard.getSecretName()) + 1);
+        }
+
+        Map<String, Map<String, String>> variablesByShard = new LinkedHashMap<>();
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            long size = KubeOperator.getDataEntrySize(variable.getKey(),
+                    variable.getValue() == null ? 0 : variable.getValue().getBytes(StandardCharsets.UTF_8).length);
+
+            String shardName = findOwner(shards, variable.getKey());
+            if (shardName != null) {
+                // variable is not moved between shards, a write to two secrets could leave it in both
+                long sizeIncrease = size - getDataEntrySize(secretObjects.get(shardName), variable.getKey());
+                if (shardSizes.get(shardName) + sizeIncrease > maxShardSize) {
+                    throw new SecuredVariableTooLargeException(("Variable %s does not fit into secret %s, "
+                            + "the secret would exceed %d bytes. Delete the variable and add it again "
+                            + "to store it in another shard").formatted(variable.getKey(), shardName, maxShardSize));
+                }
+                shardSizes.merge(shardName, sizeIncrease, Long::sum);
+            } else {
+                if (size > maxShardSize) {
+                    throw new SecuredVariableTooLargeException("Variable %s is larger than %d bytes allowed for a secret"
+                            .formatted(variable.getKey(), maxShardSize));
+                }
+                shardName = shardSizes.entrySet().stream()
+                        .filter(entry -> entry.getValue() + size <= maxShardSize)
+                        .map(Map.Entry::getKey)
+                        .findFirst()
+                        .orElse(null);
+                if (shardName == null) {
+                    shardName = getShardName(secretName, nextShardIndex++);
+                }
+                shardSizes.merge(shardName, size, Long::sum);
+            }
+
+            variablesByShard.computeIfAbsent(shardName, name -> new LinkedHashMap<>())
+                    .put(variable.getKey(), variable.getValue());
+        }
+        return variablesByShard;
+    }
+
+    /**
+     * Variables which are not present in any shard are assigned to the base secret
+     */
+    static Map<String, Set<String>> routeExisting(String secretName, List<SecretEntity> shards, Set<String> variablesNames) {
+        Map<String, Set<String>> namesByShard = new LinkedHashMap<>();
+        for (String name : variablesNames) {
+            String shardName = findOwner(shards, name);
+            namesByShard.computeIfAbsent(shardName == null ? secretName : shardName, shard -> new HashSet<>())
+                    .add(name);
+        }
+        return namesByShard;
+    }
+
+    private static long getDataEntrySize(V1Secret secret, String key) {
+        byte[] value = secret == null || secret.getData() == null ? null : secret.getData().get(key);
+        return value == null ? 0 : KubeOperator.getDataEntrySize(key, value.length);
+    }
+
+    private static String findOwner(List<SecretEntity> shards, String variableName) {
+        for (SecretEntity shard : shards) {
+            if (shard.getVariablesNames().contains(variableName)) {
+                return shard.getSecretName();
+            }
+        }
+        return null;
+    }
+}
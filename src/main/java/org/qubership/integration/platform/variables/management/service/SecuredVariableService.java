@@ -19,15 +19,19 @@
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1Secret;
 import jakarta.persistence.EntityExistsException;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
+import org.qubership.integration.platform.variables.management.kubernetes.KubeApiConflictException;
 import org.qubership.integration.platform.variables.management.kubernetes.KubeApiException;
-import org.qubership.integration.platform.variables.management.kubernetes.KubeApiNotFoundException;
 import org.qubership.integration.platform.variables.management.kubernetes.KubeOperator;
+import org.qubership.integration.platform.variables.management.kubernetes.KubeSecretsInformer;
 import org.qubership.integration.platform.variables.management.kubernetes.SecretUpdateCallback;
+import org.qubership.integration.platform.variables.management.kubernetes.SecretsPage;
 import org.qubership.integration.platform.variables.management.model.SecretEntity;
 import org.qubership.integration.platform.variables.management.persistence.configs.entity.actionlog.ActionLog;
 import org.qubership.integration.platform.variables.management.persistence.configs.entity.actionlog.EntityType;
@@ -37,23 +41,29 @@
 import org.qubership.integration.platform.variables.management.rest.exception.SecuredVariablesNotFoundException;
 import org.qubership.integration.platform.variables.management.rest.v2.dto.variables.SecretErrorResponse;
 import org.qubership.integration.platform.variables.management.util.DevModeUtil;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 import static java.util.Objects.isNull;
 
@@ -63,12 +73,38 @@ public class SecuredVariableService extends SecretService {
 
     public static final String EMPTY_SECURED_VARIABLE_NAME_ERROR_MESSAGE = "Secured variable's name is empty";
 
+    private static final int SECRET_LOCK_STRIPES = 64;
+
     private final CommonVariablesService commonVariablesService;
-    private final Lock lock;
+    /**
+     * Writes are serialized per secret, reads do not take locks. Secrets share a fixed number of locks
+     * by name hash, so the locks do not grow with the number of secret names ever written.
+     */
+    private final Lock[] secretLocks = createSecretLocks();
     private final ConcurrentMap<String, SecretEntity> securedVariablesSecrets = new ConcurrentHashMap<>();
     private final ObjectMapper objectMapperWithSorting;
     private final DevModeUtil devModeUtil;
 
+    /**
+     * Null if the informer is disabled or could not be created, reads go to the API server in that case
+     */
+    private final @Nullable KubeSecretsInformer secretsInformer;
+    private final Duration informerWriteWaitTimeout;
+
+    /**
+     * Logical secret is spread over numbered shard secrets, see {@link SecretShards}
+     */
+    private final boolean shardingEnabled;
+    private final long maxShardSize;
+
+    private final boolean optimisticConcurrency;
+    /**
+     * Attempts of a write with resourceVersion test, the secret is re-read and the write validated again before each retry
+     */
+    private final int conflictMaxAttempts;
+
+    private final ExecutorService secretsAsyncExecutor;
+
     @Autowired
     public SecuredVariableService(
             @Qualifier("yamlMapper") YAMLMapper yamlMapper,
@@ -79,24 +115,67 @@ public SecuredVariableService(
             @Value("${kubernetes.variables-secret.name}") String kubeSecretV2Name,
             DevModeUtil devModeUtil,
             @Lazy CommonVariablesService commonVariablesService,
-            @Qualifier("objectMapperWithSorting") ObjectMapper objectMapperWithSorting
+            @Qualifier("objectMapperWithSorting") ObjectMapper objectMapperWithSorting,
+            ObjectProvider<KubeSecretsInformer> secretsInformerProvider,
+            @Value("${kubernetes.secrets-informer.write-wait-timeout}") Duration informerWriteWaitTimeout,
+            @Value("${kubernetes.variables-secret.sharding.enabled}") boolean shardingEnabled,
+            @Value("${kubernetes.variables-secret.sharding.max-shard-size}") DataSize maxShardSize,
+            @Value("${kubernetes.variables-secret.optimistic-concurrency.enabled}") boolean optimisticConcurrency,
+            @Value("${kubernetes.variables-secret.optimistic-concurrency.max-attempts}") int conflictMaxAttempts,
+            @Qualifier("kubeSecretsAsyncExecutor") ExecutorService secretsAsyncExecutor
     ) {
         super(yamlMapper, objectMapper, operator, actionLogger, kubeSecretsLabel, kubeSecretV2Name);
         this.commonVariablesService = commonVariablesService;
-        this.lock = new ReentrantLock(true);
         this.objectMapperWithSorting = objectMapperWithSorting;
         this.devModeUtil = devModeUtil;
+        this.secretsInformer = secretsInformerProvider.getIfAvailable();
+        this.informerWriteWaitTimeout = informerWriteWaitTimeout;
+        this.shardingEnabled = shardingEnabled;
+        this.maxShardSize = maxShardSize.toBytes();
+        this.optimisticConcurrency = optimisticConcurrency;
+        this.conflictMaxAttempts = conflictMaxAttempts;
+        this.secretsAsyncExecutor = secretsAsyncExecutor;
     }
 
     public Map<String, Set<String>> getAllSecretsVariablesNames() {
-        lock.lock();
-        try {
-            refreshAllVariablesSecrets();
-            return getVariablesBySecret().entrySet().stream()
-                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().keySet()));
-        } finally {
-            lock.unlock();
+        return getAllSecretsVariablesNamesWithVersion().getRight();
+    }
+
+    /**
+     * @return version derived from resourceVersion of all secrets, null if unknown, and variables names per secret
+     */
+    public Pair<String, Map<String, Set<String>>> getAllSecretsVariablesNamesWithVersion() {
+        Map<String, String> resourceVersions = new HashMap<>();
+        Map<String, Set<String>> variablesNames = new HashMap<>();
+        Consumer<V1Secret> collector = secret -> {
+            resourceVersions.put(secret.getMetadata().getName(), secret.getMetadata().getResourceVersion());
+            addVariablesNames(variablesNames, secret);
+        };
+
+        if (isSecretsInformerSynced()) {
+            secretsInformer.list().forEach(collector);
+        } else {
+            refreshAllVariablesSecrets(collector);
+        }
+        return Pair.of(getSecretsVersion(resourceVersions), variablesNames);
+    }
+
+    /**
+     * Page of the labelled secrets listed from the API server, only the secrets of the page are kept in memory.
+     * With sharding enabled shards of a secret may be returned in different pages.
+     *
+     * @param cursor continue token of the previous page, null for the first page
+     * @return variables names per secret and the cursor of the next page, null on the last page
+     */
+    public Pair<Map<String, Set<String>>, String> getSecretsVariablesNamesPage(int limit, @Nullable String cursor) {
+        SecretsPage page = operator.listSecretObjectsWithLabel(getKubeSecretsLabel(), limit, cursor);
+
+        Map<String, Set<String>> variablesNames = new HashMap<>();
+        for (V1Secret secret : page.secrets()) {
+            updateVariablesCache(secret);
+            addVariablesNames(variablesNames, secret);
         }
+        return Pair.of(variablesNames, page.continueToken());
     }
 
     public Set<String> getVariablesForDefaultSecret(boolean failIfSecretNotExist) {
@@ -106,23 +185,22 @@ public Set<String> getVariablesForDefaultSecret(boolean failIfSecretNotExist) {
     public Set<String> getVariablesForSecret(String secretName, boolean failIfSecretNotExist) {
         secretName = resolveSecretName(secretName);
 
-        lock.lock();
-        try {
-            refreshVariablesForSecret(secretName, failIfSecretNotExist);
+        // Secrets without the label are not tracked by the informer and are read from the API server
+        V1Secret cachedSecret = isSecretsInformerSynced() && !shardingEnabled ? secretsInformer.get(secretName) : null;
+        if (cachedSecret != null) {
+            return KubeOperator.getSecretDataKeys(cachedSecret);
+        }
 
-            SecretEntity secret = securedVariablesSecrets.get(secretName);
-            if (secret == null) {
-                if (failIfSecretNotExist) {
-                    throw new SecuredVariablesNotFoundException(SECRET_NOT_FOUND_ERROR_MESSAGE_FORMAT.formatted(secretName));
-                } else {
-                    return Collections.emptySet();
-                }
+        List<SecretEntity> shards = refreshSecretShards(secretName, failIfSecretNotExist);
+        if (shards.isEmpty()) {
+            if (failIfSecretNotExist) {
+                throw new SecuredVariablesNotFoundException(SECRET_NOT_FOUND_ERROR_MESSAGE_FORMAT.formatted(secretName));
+            } else {
+                return Collections.emptySet();
             }
-
-            return secret.getVariables().keySet();
-        } finally {
-            lock.unlock();
         }
+
+        return getVariablesNames(shards);
     }
 
     public Set<String> addVariablesToDefaultSecret(Map<String, String> newVariables) {
@@ -138,43 +216,152 @@ public Map<String, Set<String>> addVariables(String secretName, Map<String, Stri
             return Collections.singletonMap(secretName, Collections.emptySet());
         }
 
-        Map<String, String> oldVariablesCopy;
+        Set<String> oldVariablesNames;
 
-        lock.lock();
+        secretName = resolveSecretName(secretName);
+        Lock secretLock = getSecretLock(secretName);
+        secretLock.lock();
         try {
-            secretName = resolveSecretName(secretName);
-
-            refreshVariablesForSecret(secretName, true);
-            SecretEntity secret = securedVariablesSecrets.get(secretName);
-            if (secret == null) {
+            Map<String, V1Secret> secretObjects = new HashMap<>();
+            List<SecretEntity> shards = refreshSecretShards(secretName, true, false, secretObjects);
+            if (shards.isEmpty()) {
                 throw new SecuredVariablesNotFoundException(SECRET_NOT_FOUND_ERROR_MESSAGE_FORMAT.formatted(secretName));
             }
 
-            ConcurrentMap<String, String> variables = new ConcurrentHashMap<>(secret.getVariables());
-            oldVariablesCopy = new HashMap<>(variables);
+            oldVariablesNames = getVariablesNames(shards);
 
             if (isDefaultSecret(secretName)) {
-                validateSecuredVariablesUniqueness(variables, newVariables);
+                validateSecuredVariablesUniqueness(oldVariablesNames, newVariables);
             }
 
             for (Map.Entry<String, String> securedVariable : newVariables.entrySet()) {
                 validateSecuredVariable(securedVariable.getKey(), securedVariable.getValue());
             }
 
-            updateVariablesCache(secretName, operator.addSecretData(secretName, newVariables, variables.isEmpty()));
+            writeVariables(secretName, shards, secretObjects, newVariables);
         } finally {
-            lock.unlock();
+            secretLock.unlock();
         }
 
         for (String name : newVariables.keySet()) {
             logSecuredVariableAction(name, secretName, importMode
                     ? LogOperation.IMPORT
-                    : (oldVariablesCopy.containsKey(name) ? LogOperation.UPDATE : LogOperation.CREATE));
+                    : (oldVariablesNames.contains(name) ? LogOperation.UPDATE : LogOperation.CREATE));
         }
 
         return Collections.singletonMap(secretName, newVariables.keySet());
     }
 
+    /**
+     * Variables of all secrets are validated before any write, then the secrets are written concurrently,
+     * so the request takes as long as the slowest secret. A failed secret does not stop the others.
+     *
+     * @return added variables names per secret and errors of the failed secrets
+     */
+    public Pair<Map<String, Set<String>>, List<SecretErrorResponse>> addVariablesForMultipleSecrets(
+            Map<String, Map<String, String>> variablesPerSecret, boolean importMode) {
+        Map<String, Map<String, String>> newVariablesPerSecret = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> variablesForSecret : variablesPerSecret.entrySet()) {
+            for (Map.Entry<String, String> securedVariable : variablesForSecret.getValue().entrySet()) {
+                validateSecuredVariable(securedVariable.getKey(), securedVariable.getValue());
+            }
+            if (!variablesForSecret.getValue().isEmpty()) {
+                newVariablesPerSecret
+                        .computeIfAbsent(resolveSecretName(variablesForSecret.getKey()), name -> new HashMap<>())
+                        .putAll(variablesForSecret.getValue());
+            }
+        }
+        if (newVariablesPerSecret.isEmpty()) {
+            return Pair.of(Collections.emptyMap(), Collections.emptyList());
+        }
+
+        Map<String, Set<String>> oldVariablesPerSecret = new HashMap<>();
+        Map<String, CompletableFuture<Void>> secretUpdateFutures = new HashMap<>();
+        Map<String, Throwable> secretUpdateExceptions = new HashMap<>();
+
+        List<Lock> acquiredLocks = lockSecrets(newVariablesPerSecret.keySet());
+        try {
+            // values of the written secrets are kept for the request only, to skip unchanged variables
+            Map<String, V1Secret> secretObjects = new HashMap<>();
+            refreshAllVariablesSecrets(secret -> {
+                if (newVariablesPerSecret.containsKey(getLogicalSecretName(secret.getMetadata().getName()))) {
+                    secretObjects.put(secret.getMetadata().getName(), secret);
+                }
+            });
+            Map<String, List<SecretEntity>> shardsPerSecret = new HashMap<>();
+            for (Map.Entry<String, Map<String, String>> newVariables : newVariablesPerSecret.entrySet()) {
+                String secretName = newVariables.getKey();
+                List<SecretEntity> shards = getCachedSecretShards(secretName);
+                if (shards.isEmpty()) {
+                    secretUpdateExceptions.put(
+                            secretName,
+                            new SecuredVariablesNotFoundException(SECRET_NOT_FOUND_ERROR_MESSAGE_FORMAT.formatted(secretName))
+                    );
+                    continue;
+                }
+
+                Set<String> oldVariablesNames = getVariablesNames(shards);
+                if (isDefaultSecret(secretName)) {
+                    validateSecuredVariablesUniqueness(oldVariablesNames, newVariables.getValue());
+                }
+                oldVariablesPerSecret.put(secretName, oldVariablesNames);
+                shardsPerSecret.put(secretName, shards);
+            }
+
+            for (Map.Entry<String, List<SecretEntity>> secretShards : shardsPerSecret.entrySet()) {
+                String secretName = secretShards.getKey();
+                Map<String, String> newVariables = newVariablesPerSecret.get(secretName);
+                secretUpdateFutures.put(secretName, CompletableFuture.runAsync(
+                        () -> writeVariables(secretName, secretShards.getValue(), secretObjects, newVariables),
+                        secretsAsyncExecutor));
+            }
+
+            for (Map.Entry<String, CompletableFuture<Void>> future : secretUpdateFutures.entrySet()) {
+                try {
+                    future.getValue().get();
+                } catch (ExecutionException e) {
+                    secretUpdateExceptions.put(future.getKey(), e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Failed to add variables", e);
+            throw new SecuredVariablesException("Failed to add variables", e);
+        } finally {
+            acquiredLocks.forEach(Lock::unlock);
+        }
+
+        Map<String, Set<String>> addedVariablesPerSecret = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> newVariables : newVariablesPerSecret.entrySet()) {
+            String secretName = newVariables.getKey();
+            if (secretUpdateExceptions.containsKey(secretName)) {
+                continue;
+            }
+            Set<String> oldVariablesNames = oldVariablesPerSecret.get(secretName);
+            for (String name : newVariables.getValue().keySet()) {
+                logSecuredVariableAction(name, secretName, importMode
+                        ? LogOperation.IMPORT
+                        : (oldVariablesNames.contains(name) ? LogOperation.UPDATE : LogOperation.CREATE));
+            }
+            addedVariablesPerSecret.put(secretName, newVariables.getValue().keySet());
+        }
+
+        List<SecretErrorResponse> errorResponses = new ArrayList<>();
+        for (Map.Entry<String, Throwable> entry : secretUpdateExceptions.entrySet()) {
+            errorResponses.add(new SecretErrorResponse(entry.getKey(), entry.getValue().getMessage()));
+            log.error("Failed to add variables to secret {}", entry.getKey(), entry.getValue());
+        }
+        if (secretUpdateExceptions.keySet().containsAll(newVariablesPerSecret.keySet())) {
+            // single secret request keeps the error of the secret, e.g. not found
+            if (secretUpdateExceptions.size() == 1
+                    && secretUpdateExceptions.values().iterator().next() instanceof RuntimeException e) {
+                throw e;
+            }
+            throw new SecuredVariablesException("Failed to add variables to multiple secrets");
+        }
+        return Pair.of(addedVariablesPerSecret, errorResponses);
+    }
+
     public void deleteVariablesFromDefaultSecret(Set<String> variablesNames) {
         deleteVariables(getKubeSecretV2Name(), variablesNames);
     }
@@ -189,17 +376,12 @@ public void deleteVariables(String secretName, Set<String> variablesNames, boole
             return;
         }
 
-        lock.lock();
+        Lock secretLock = getSecretLock(secretName);
+        secretLock.lock();
         try {
-            refreshVariablesForSecret(secretName, true);
-            SecretEntity secret = securedVariablesSecrets.get(secretName);
-            if (secret == null) {
-                throw new SecuredVariablesNotFoundException(SECRET_NOT_FOUND_ERROR_MESSAGE_FORMAT.formatted(secretName));
-            }
-
-            updateVariablesCache(secretName, operator.removeSecretData(secretName, variablesNames));
+            removeVariables(secretName, variablesNames, false);
         } finally {
-            lock.unlock();
+            secretLock.unlock();
         }
 
         if (logOperation) {
@@ -208,18 +390,28 @@ public void deleteVariables(String secretName, Set<String> variablesNames, boole
         }
     }
 
+    /**
+     * Shards are patched asynchronously, a secret whose patch failed the resourceVersion test
+     * is re-read and written again synchronously
+     */
     public List<SecretErrorResponse> deleteVariablesForMultipleSecrets(Map<String, Set<String>> variablesPerSecret) {
-        List<CompletableFuture<Map<String, String>>> secretUpdateFutures = new ArrayList<>();
-        Map<String, Throwable> secretUpdateExceptions = new HashMap<>();
+        Map<String, Set<String>> variablesToRemovePerSecret = new HashMap<>();
+        variablesPerSecret.forEach((secretName, variablesNames) -> variablesToRemovePerSecret
+                .computeIfAbsent(resolveSecretName(secretName), name -> new HashSet<>())
+                .addAll(variablesNames));
 
-        lock.lock();
+        List<Pair<CompletableFuture<V1Secret>, SecretEntity>> secretUpdateFutures = new ArrayList<>();
+        Map<String, Throwable> secretUpdateExceptions = new ConcurrentHashMap<>();
+        Set<String> conflictedSecrets = ConcurrentHashMap.newKeySet();
+
+        List<Lock> acquiredLocks = lockSecrets(variablesToRemovePerSecret.keySet());
         try {
             refreshAllVariablesSecrets();
-            for (Map.Entry<String, Set<String>> variablePerSecret : variablesPerSecret.entrySet()) {
-                String secretName = resolveSecretName(variablePerSecret.getKey());
+            for (Map.Entry<String, Set<String>> variablePerSecret : variablesToRemovePerSecret.entrySet()) {
+                String secretName = variablePerSecret.getKey();
                 Set<String> variablesToRemove = variablePerSecret.getValue();
-                SecretEntity secret = securedVariablesSecrets.get(secretName);
-                if (secret == null) {
+                List<SecretEntity> shards = getCachedSecretShards(secretName);
+                if (shards.isEmpty()) {
                     secretUpdateExceptions.put(
                             secretName,
                             new SecuredVariablesNotFoundException(SECRET_NOT_FOUND_ERROR_MESSAGE_FORMAT.formatted(secretName))
@@ -228,18 +420,22 @@ public List<SecretErrorResponse> deleteVariablesForMultipleSecrets(Map<String, S
                 }
 
                 try {
-                    CompletableFuture<Map<String, String>> future = new CompletableFuture<Map<String, String>>()
-                            .whenComplete((secretData, throwable) -> {
-                                if (secretData != null) {
-                                    updateVariablesCache(secretName, secretData);
-                                    return;
-                                }
-                                if (throwable != null) {
-                                    secretUpdateExceptions.put(secretName, throwable);
-                                }
-                            });
-                    secretUpdateFutures.add(future);
-                    operator.removeSecretDataAsync(secretName, variablesToRemove, new SecretUpdateCallback(future));
+                    for (Map.Entry<String, Set<String>> shardVariables
+                            : SecretShards.routeExisting(secretName, shards, variablesToRemove).entrySet()) {
+                        SecretEntity shard = findShard(shards, shardVariables.getKey());
+                        CompletableFuture<V1Secret> future = new CompletableFuture<>();
+                        secretUpdateFutures.add(Pair.of(future.whenComplete((updatedSecret, throwable) -> {
+                            if (throwable == null) {
+                                updateVariablesCache(updatedSecret);
+                            } else if (throwable instanceof ApiException e && KubeOperator.isResourceVersionConflict(e)) {
+                                conflictedSecrets.add(secretName);
+                            } else {
+                                secretUpdateExceptions.put(secretName, throwable);
+                            }
+                        }), shard));
+                        operator.removeSecretDataAsync(shardVariables.getKey(), shardVariables.getValue(),
+                                getExpectedResourceVersion(shard), new SecretUpdateCallback(future));
+                    }
                 } catch (Exception e) {
                     secretUpdateExceptions.putIfAbsent(
                             secretName,
@@ -248,15 +444,31 @@ public List<SecretErrorResponse> deleteVariablesForMultipleSecrets(Map<String, S
                 }
             }
 
-            CompletableFuture.allOf(secretUpdateFutures.toArray(new CompletableFuture[0])).get();
-        } catch (InterruptedException | ExecutionException e) {
+            for (Pair<CompletableFuture<V1Secret>, SecretEntity> future : secretUpdateFutures) {
+                try {
+                    awaitSecretsInformer(future.getLeft().get(), future.getRight());
+                } catch (ExecutionException e) {
+                    // failure is recorded by the completion handler of the patch
+                }
+            }
+
+            conflictedSecrets.removeAll(secretUpdateExceptions.keySet());
+            for (String secretName : conflictedSecrets) {
+                try {
+                    removeVariables(secretName, variablesToRemovePerSecret.get(secretName), true);
+                } catch (RuntimeException e) {
+                    secretUpdateExceptions.put(secretName, e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             log.error("Failed to delete variables", e);
             throw new SecuredVariablesException("Failed to delete variables", e);
         } finally {
-            lock.unlock();
+            acquiredLocks.forEach(Lock::unlock);
         }
 
-        variablesPerSecret.entrySet().stream()
+        variablesToRemovePerSecret.entrySet().stream()
                 .filter(entry -> !secretUpdateExceptions.containsKey(entry.getKey()))
                 .forEach(entry -> entry.getValue().forEach(variable ->
                         logSecuredVariableAction(variable, entry.getKey(), LogOperation.DELETE)));
@@ -266,7 +478,7 @@ public List<SecretErrorResponse> deleteVariablesForMultipleSecrets(Map<String, S
                 errorResponses.add(new SecretErrorResponse(entry.getKey(), entry.getValue().getMessage()));
                 log.error("Failed to delete variables from secret {}", entry.getKey(), entry.getValue());
             }
-            if (secretUpdateExceptions.keySet().containsAll(variablesPerSecret.keySet())) {
+            if (secretUpdateExceptions.keySet().containsAll(variablesToRemovePerSecret.keySet())) {
                 throw new SecuredVariablesException("Failed to delete variables from multiple secrets");
             }
             return errorResponses;
@@ -283,29 +495,38 @@ public String updateVariableInDefaultSecret(String name, String value) {
     public Pair<String, Set<String>> updateVariables(String secretName, Map<String, String> variablesToUpdate) {
         secretName = resolveSecretName(secretName);
 
-        lock.lock();
-        try {
-            refreshVariablesForSecret(secretName, true);
-
-            ConcurrentMap<String, String> variables = new ConcurrentHashMap<>(
-                    securedVariablesSecrets.get(secretName).getVariables()
-            );
+        Map<String, String> variables = new HashMap<>();
+        for (Map.Entry<String, String> variable : variablesToUpdate.entrySet()) {
+            validateSecuredVariable(variable.getKey(), variable.getValue());
+            variables.put(variable.getKey(), isNull(variable.getValue()) ? "" : variable.getValue());
+        }
 
-            for (Map.Entry<String, String> variable : variablesToUpdate.entrySet()) {
-                String name = variable.getKey();
-                String value = variable.getValue();
-                validateSecuredVariable(name, value);
+        Lock secretLock = getSecretLock(secretName);
+        secretLock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                Map<String, V1Secret> secretObjects = new HashMap<>();
+                List<SecretEntity> shards = refreshSecretShards(secretName, true, attempt > 1, secretObjects);
+                if (shards.isEmpty()) {
+                    throw new SecuredVariablesNotFoundException(SECRET_NOT_FOUND_ERROR_MESSAGE_FORMAT.formatted(secretName));
+                }
 
-                if (!variables.containsKey(name)) {
-                    throw new SecuredVariablesNotFoundException("Cannot find variable " + name);
+                Set<String> variablesNames = getVariablesNames(shards);
+                for (String name : variables.keySet()) {
+                    if (!variablesNames.contains(name)) {
+                        throw new SecuredVariablesNotFoundException("Cannot find variable " + name);
+                    }
                 }
 
-                variables.put(name, isNull(value) ? "" : value);
+                try {
+                    updateVariablesInShards(secretName, shards, secretObjects, variables);
+                    break;
+                } catch (KubeApiConflictException e) {
+                    onWriteConflict(secretName, attempt, e);
+                }
             }
-
-            updateVariablesCache(secretName, operator.updateSecretData(secretName, variables));
         } finally {
-            lock.unlock();
+            secretLock.unlock();
         }
 
         final String finalSecretName = secretName;
@@ -322,7 +543,7 @@ public Set<String> importVariablesRequest(MultipartFile file) {
             log.error("Unable to convert file to variables {}", e.getMessage());
             throw new RuntimeException("Unable to convert file to variables");
         }
-        addVariables(getKubeSecretV2Name(), importedVariables, true);
+        addVariablesForMultipleSecrets(Collections.singletonMap(getKubeSecretV2Name(), importedVariables), true);
 
         importedVariables.keySet().forEach(name -> logSecuredVariableAction(name, getKubeSecretV2Name(), LogOperation.IMPORT));
         return importedVariables.keySet();
@@ -338,72 +559,429 @@ private void validateSecuredVariable(String name, String value) {
         }
     }
 
-    private void validateSecuredVariablesUniqueness(Map<String, String> currentVariables, Map<String, String> newVariables) {
-        Map<String, String> commonVariables = commonVariablesService.getVariables();
-        for (Map.Entry<String, String> commonVariable : commonVariables.entrySet()) {
-            String name = commonVariable.getKey();
-            if (currentVariables.containsKey(name) || newVariables.containsKey(name)) {
+    private void validateSecuredVariablesUniqueness(Set<String> currentVariablesNames, Map<String, String> newVariables) {
+        Set<String> commonVariablesNames = commonVariablesService.getVariablesNames();
+        for (String name : commonVariablesNames) {
+            if (currentVariablesNames.contains(name) || newVariables.containsKey(name)) {
                 throw new EntityExistsException("Common variable with name " + name + " already exists");
             }
         }
     }
 
-    private ConcurrentMap<String, ConcurrentMap<String, String>> getVariablesBySecret() {
-        ConcurrentMap<String, ConcurrentMap<String, String>> variables = new ConcurrentHashMap<>();
-        for (Map.Entry<String, SecretEntity> entry : securedVariablesSecrets.entrySet()) {
-            variables.put(entry.getKey(), entry.getValue().getVariables());
+    private List<SecretEntity> refreshSecretShards(String secretName, boolean failIfSecretNotExist) {
+        return refreshSecretShards(secretName, failIfSecretNotExist, false, new HashMap<>());
+    }
+
+    /**
+     * @param skipInformer read from the API server, e.g. after a conflict the informer may not have observed
+     *                     the concurrent write yet
+     * @param secretObjects collects the read shards by name, so writes compare values without reading them again
+     * @return shards of the logical secret ordered by index, base secret first,
+     *         only the secret itself if sharding is disabled, empty list if the secret does not exist
+     */
+    private List<SecretEntity> refreshSecretShards(String secretName, boolean failIfSecretNotExist, boolean skipInformer,
+                                                   Map<String, V1Secret> secretObjects) {
+        if (!shardingEnabled) {
+            SecretEntity secret = refreshVariablesForSecret(secretName, failIfSecretNotExist, skipInformer, secretObjects);
+            return secret == null ? Collections.emptyList() : List.of(secret);
+        }
+
+        List<SecretEntity> shards = new ArrayList<>();
+        Consumer<V1Secret> shardsCollector = secret -> {
+            String shardName = secret.getMetadata().getName();
+            if (!shardName.equals(secretName) && SecretShards.isShardOf(shardName, secretName)) {
+                shards.add(updateVariablesCache(secret));
+                secretObjects.put(shardName, secret);
+            }
+        };
+        if (isSecretsInformerSynced() && !skipInformer) {
+            secretsInformer.list().forEach(shardsCollector);
+        } else {
+            operator.forEachSecretObjectWithLabel(getKubeSecretsLabel(), shardsCollector);
         }
 
-        return variables;
+        SecretEntity baseSecret = refreshVariablesForSecret(secretName, failIfSecretNotExist && shards.isEmpty(),
+                skipInformer, secretObjects);
+        if (baseSecret != null) {
+            shards.add(baseSecret);
+        }
+        shards.sort(Comparator.comparingInt(shard -> SecretShards.getShardIndex(shard.getSecretName())));
+        return shards;
+    }
+
+    private List<SecretEntity> getCachedSecretShards(String secretName) {
+        return securedVariablesSecrets.values().stream()
+                .filter(secret -> shardingEnabled
+                        ? SecretShards.isShardOf(secret.getSecretName(), secretName)
+                        : secret.getSecretName().equals(secretName))
+                .sorted(Comparator.comparingInt(shard -> SecretShards.getShardIndex(shard.getSecretName())))
+                .toList();
+    }
+
+    private static @Nullable SecretEntity findShard(List<SecretEntity> shards, String shardName) {
+        return shards.stream()
+                .filter(shard -> shard.getSecretName().equals(shardName))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Drops variables whose value in the secret is the same, so a patch carries only the changed keys.
+     * Values are compared as bytes without decoding the rest of the secret, the secret read before the write is used,
+     * so no extra request is made.
+     */
+    private Map<String, String> getChangedVariables(@Nullable SecretEntity shard, Map<String, V1Secret> secretObjects,
+                                                    Map<String, String> variables) {
+        if (shard == null || Collections.disjoint(shard.getVariablesNames(), variables.keySet())) {
+            return variables;
+        }
+
+        V1Secret secret = secretObjects.get(shard.getSecretName());
+        if (secret == null || secret.getData() == null) {
+            return variables;
+        }
+
+        Map<String, String> changedVariables = new HashMap<>();
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            byte[] currentValue = secret.getData().get(variable.getKey());
+            if (currentValue == null || variable.getValue() == null
+                    || !Arrays.equals(currentValue, variable.getValue().getBytes())) {
+                changedVariables.put(variable.getKey(), variable.getValue());
+            }
+        }
+        if (changedVariables.size() < variables.size()) {
+            log.debug("Skipping {} unchanged variables of secret {}",
+                    variables.size() - changedVariables.size(), shard.getSecretName());
+        }
+        return changedVariables;
+    }
+
+    /**
+     * Patches carry a resourceVersion test, so concurrent writes from other replicas are not lost.
+     * Null if the version is unknown, e.g. the shard was just created.
+     */
+    private @Nullable String getExpectedResourceVersion(@Nullable SecretEntity shard) {
+        return optimisticConcurrency && shard != null ? shard.getResourceVersion() : null;
+    }
+
+    /**
+     * Creates the shard if it is a new one, otherwise patches only the changed variables
+     */
+    private void addVariablesToShard(List<SecretEntity> shards, Map<String, V1Secret> secretObjects, String shardName,
+                                     Map<String, String> variables) {
+        SecretEntity shard = findShard(shards, shardName);
+        if (shard == null) {
+            createSecretShard(shardName, variables);
+            return;
+        }
+
+        Map<String, String> changedVariables = getChangedVariables(shard, secretObjects, variables);
+        if (!changedVariables.isEmpty()) {
+            onSecretUpdated(operator.addSecretData(shardName, changedVariables,
+                    shard.getVariablesNames().isEmpty(), getExpectedResourceVersion(shard)), shard);
+        }
+    }
+
+    /**
+     * Routes the variables to the shards and writes them. On conflict the shards are re-read, so routing,
+     * uniqueness and unchanged values are checked again against the current secret before the next attempt.
+     *
+     * @param shards shards read before the write
+     * @param secretObjects secrets read with the shards
+     */
+    private void writeVariables(String secretName, List<SecretEntity> shards, Map<String, V1Secret> secretObjects,
+                                Map<String, String> newVariables) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Map<String, Map<String, String>> variablesByShard = shardingEnabled
+                        ? SecretShards.route(secretName, shards, secretObjects, newVariables, maxShardSize)
+                        : Collections.singletonMap(secretName, newVariables);
+                for (Map.Entry<String, Map<String, String>> shardVariables : variablesByShard.entrySet()) {
+                    addVariablesToShard(shards, secretObjects, shardVariables.getKey(), shardVariables.getValue());
+                }
+                return;
+            } catch (KubeApiConflictException e) {
+                onWriteConflict(secretName, attempt, e);
+            }
+
+            secretObjects = new HashMap<>();
+            shards = refreshSecretShards(secretName, true, true, secretObjects);
+            if (shards.isEmpty()) {
+                throw new SecuredVariablesNotFoundException(SECRET_NOT_FOUND_ERROR_MESSAGE_FORMAT.formatted(secretName));
+            }
+            if (isDefaultSecret(secretName)) {
+                validateSecuredVariablesUniqueness(getVariablesNames(shards), newVariables);
+            }
+        }
+    }
+
+    /**
+     * Variables exist in the shards, routing keeps them in their shards and checks that the shards do not grow too large
+     */
+    private void updateVariablesInShards(String secretName, List<SecretEntity> shards,
+                                         Map<String, V1Secret> secretObjects, Map<String, String> variables) {
+        Map<String, Map<String, String>> variablesByShard = shardingEnabled
+                ? SecretShards.route(secretName, shards, secretObjects, variables, maxShardSize)
+                : Collections.singletonMap(secretName, variables);
+        for (Map.Entry<String, Map<String, String>> shardVariables : variablesByShard.entrySet()) {
+            SecretEntity shard = findShard(shards, shardVariables.getKey());
+            Map<String, String> shardUpdates = getChangedVariables(shard, secretObjects, shardVariables.getValue());
+            if (!shardUpdates.isEmpty()) {
+                onSecretUpdated(operator.updateSecretData(shardVariables.getKey(), shardUpdates,
+                        getExpectedResourceVersion(shard)), shard);
+            }
+        }
+    }
+
+    /**
+     * Shards are patched one by one, on conflict the shards are re-read and only the variables
+     * still present are removed by the next attempt
+     *
+     * @param partiallyRemoved true if a previous write may have removed the variables from some of the shards
+     */
+    private void removeVariables(String secretName, Set<String> variablesNames, boolean partiallyRemoved) {
+        for (int attempt = 1; ; attempt++) {
+            boolean retry = partiallyRemoved || attempt > 1;
+            List<SecretEntity> shards = refreshSecretShards(secretName, true, retry, new HashMap<>());
+            if (shards.isEmpty()) {
+                throw new SecuredVariablesNotFoundException(SECRET_NOT_FOUND_ERROR_MESSAGE_FORMAT.formatted(secretName));
+            }
+
+            Set<String> variablesToRemove = variablesNames;
+            if (retry) {
+                variablesToRemove = new HashSet<>(variablesNames);
+                variablesToRemove.retainAll(getVariablesNames(shards));
+                if (variablesToRemove.isEmpty()) {
+                    return;
+                }
+            }
+
+            try {
+                for (Map.Entry<String, Set<String>> shardVariables
+                        : SecretShards.routeExisting(secretName, shards, variablesToRemove).entrySet()) {
+                    SecretEntity shard = findShard(shards, shardVariables.getKey());
+                    onSecretUpdated(operator.removeSecretData(shardVariables.getKey(), shardVariables.getValue(),
+                            getExpectedResourceVersion(shard)), shard);
+                }
+                return;
+            } catch (KubeApiConflictException e) {
+                onWriteConflict(secretName, attempt, e);
+            }
+        }
+    }
+
+    private void onWriteConflict(String secretName, int attempt, KubeApiConflictException e) {
+        if (attempt >= conflictMaxAttempts) {
+            throw new KubeApiConflictException("Secret " + secretName + " was modified concurrently, "
+                    + "write failed after " + attempt + " attempts", e);
+        }
+        log.debug("Secret {} was modified concurrently, repeating write, attempt {}", secretName, attempt);
+    }
+
+    private static Set<String> getVariablesNames(List<SecretEntity> shards) {
+        if (shards.size() == 1) {
+            return shards.get(0).getVariablesNames();
+        }
+        Set<String> variablesNames = new HashSet<>();
+        shards.forEach(shard -> variablesNames.addAll(shard.getVariablesNames()));
+        return variablesNames;
+    }
+
+    /**
+     * New shard carries the same label as the other secured variables secrets
+     */
+    private void createSecretShard(String shardName, Map<String, String> variables) {
+        log.info("Creating secured variables secret shard {}", shardName);
+        operator.createSecret(shardName, getKubeSecretsLabel(), variables);
+        updateVariablesCache(shardName, variables.keySet());
+    }
+
+    private static Lock[] createSecretLocks() {
+        Lock[] locks = new Lock[SECRET_LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock(true);
+        }
+        return locks;
+    }
+
+    private Lock getSecretLock(String secretName) {
+        return secretLocks[getSecretLockIndex(secretName)];
+    }
+
+    private static int getSecretLockIndex(String secretName) {
+        return Math.floorMod(secretName.hashCode(), SECRET_LOCK_STRIPES);
+    }
+
+    /**
+     * Distinct locks of the secrets are taken in the order of their indexes, so concurrent multi-secret writes
+     * cannot deadlock, also when secrets share a lock
+     */
+    private List<Lock> lockSecrets(Set<String> secretNames) {
+        SortedSet<Integer> lockIndexes = new TreeSet<>();
+        secretNames.forEach(secretName -> lockIndexes.add(getSecretLockIndex(secretName)));
+
+        List<Lock> acquiredLocks = new ArrayList<>();
+        try {
+            for (int lockIndex : lockIndexes) {
+                Lock secretLock = secretLocks[lockIndex];
+                secretLock.lock();
+                acquiredLocks.add(secretLock);
+            }
+        } catch (RuntimeException e) {
+            acquiredLocks.forEach(Lock::unlock);
+            throw e;
+        }
+        return acquiredLocks;
     }
 
     private void refreshAllVariablesSecrets() {
-        ConcurrentMap<String, ConcurrentMap<String, String>> foundSecrets;
+        refreshAllVariablesSecrets(secret -> {
+        });
+    }
+
+    /**
+     * Cache entries are replaced one by one instead of clearing the cache, so concurrent single secret
+     * operations keep their entries. Secrets listed from the API server are processed page by page.
+     *
+     * @param action called for each labelled secret
+     */
+    private void refreshAllVariablesSecrets(Consumer<V1Secret> action) {
+        Set<String> foundSecretsNames = new HashSet<>();
+        Consumer<V1Secret> refresher = secret -> {
+            updateVariablesCache(secret);
+            foundSecretsNames.add(secret.getMetadata().getName());
+            action.accept(secret);
+        };
 
         try {
-            foundSecrets = operator.getAllSecretsWithLabel(getKubeSecretsLabel());
+            if (isSecretsInformerSynced()) {
+                secretsInformer.list().forEach(refresher);
+            } else {
+                operator.forEachSecretObjectWithLabel(getKubeSecretsLabel(), refresher);
+            }
         } catch (KubeApiException e) {
             log.error("Can't get kube secrets {}", e.getMessage());
             if (!devModeUtil.isDevMode()) {
                 throw e;
             }
-            foundSecrets = new ConcurrentHashMap<>();
+            return;
         }
+        securedVariablesSecrets.keySet().retainAll(foundSecretsNames);
+    }
+
+    private void addVariablesNames(Map<String, Set<String>> variablesNames, V1Secret secret) {
+        variablesNames.computeIfAbsent(getLogicalSecretName(secret.getMetadata().getName()), name -> new HashSet<>())
+                .addAll(KubeOperator.getSecretDataKeys(secret));
+    }
 
-        securedVariablesSecrets.clear();
-        for (Map.Entry<String, ConcurrentMap<String, String>> entry : foundSecrets.entrySet()) {
-            String secretName = entry.getKey();
-            ConcurrentMap<String, String> secretData = entry.getValue();
-            updateVariablesCache(secretName, secretData);
+    private String getLogicalSecretName(String secretName) {
+        return shardingEnabled ? SecretShards.getLogicalSecretName(secretName) : secretName;
+    }
+
+    /**
+     * Digest of sorted secret names and resource versions, null if any of the cached secrets was changed locally
+     */
+    private static @Nullable String getSecretsVersion(Map<String, String> resourceVersions) {
+        StringBuilder versions = new StringBuilder();
+        for (Map.Entry<String, String> entry : new TreeMap<>(resourceVersions).entrySet()) {
+            if (entry.getValue() == null) {
+                return null;
+            }
+            versions.append(entry.getKey()).append('=').append(entry.getValue()).append(';');
         }
+        return "sv-" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8));
     }
 
-    private void refreshVariablesForSecret(String secretName, boolean failIfSecretNotExist) {
+    /**
+     * @return refreshed cache entry, null if the secret does not exist
+     */
+    private @Nullable SecretEntity refreshVariablesForSecret(String secretName, boolean failIfSecretNotExist,
+                                                             boolean skipInformer, Map<String, V1Secret> secretObjects) {
+        Optional<V1Secret> secret = isSecretsInformerSynced() && !skipInformer
+                ? Optional.ofNullable(secretsInformer.get(secretName))
+                : Optional.empty();
         try {
-            ConcurrentMap<String, String> secretData = operator.getSecretByName(secretName, failIfSecretNotExist);
-            updateVariablesCache(secretName, secretData);
-        } catch (KubeApiNotFoundException e) {
-            log.error("Cannot get secured variables from secret", e);
-            securedVariablesSecrets.remove(secretName);
-            if (!devModeUtil.isDevMode()) {
-                throw new SecuredVariablesNotFoundException(
-                        SECRET_NOT_FOUND_ERROR_MESSAGE_FORMAT.formatted(secretName),
-                        e
-                );
+            if (secret.isEmpty()) {
+                secret = operator.findSecretObjectByName(secretName);
             }
         } catch (KubeApiException e) {
             log.error("Can't get kube secret: {}", e.getMessage());
             if (!devModeUtil.isDevMode()) {
                 throw e;
             }
+            return securedVariablesSecrets.get(secretName);
+        }
+
+        if (secret.isPresent()) {
+            secretObjects.put(secretName, secret.get());
+            return updateVariablesCache(secretName, KubeOperator.getSecretDataKeys(secret.get()),
+                    secret.get().getMetadata() == null ? null : secret.get().getMetadata().getResourceVersion(),
+                    KubeOperator.getSecretDataSize(secret.get()));
+        } else if (!failIfSecretNotExist) {
+            return updateVariablesCache(secretName, Collections.emptySet());
+        } else {
+            log.error("Cannot get secured variables from secret {}, secret not found", secretName);
+            securedVariablesSecrets.remove(secretName);
+            if (!devModeUtil.isDevMode()) {
+                throw new SecuredVariablesNotFoundException(SECRET_NOT_FOUND_ERROR_MESSAGE_FORMAT.formatted(secretName));
+            }
+            return null;
         }
     }
 
-    private void updateVariablesCache(String secretName, Map<String, String> variables) {
-        securedVariablesSecrets.put(secretName, SecretEntity.builder()
+    /**
+     * @param shard cache entry the write was based on
+     */
+    private void onSecretUpdated(V1Secret secret, @Nullable SecretEntity shard) {
+        updateVariablesCache(secret);
+        awaitSecretsInformer(secret, shard);
+    }
+
+    /**
+     * Reads served by the informer must observe the write, so the write returns after the informer
+     * has seen the new resourceVersion or a version other than the one the write was based on
+     */
+    private void awaitSecretsInformer(V1Secret secret, @Nullable SecretEntity shard) {
+        String secretName = secret.getMetadata().getName();
+        if (!isSecretsInformerSynced() || secretsInformer.get(secretName) == null) {
+            return;
+        }
+
+        String resourceVersion = secret.getMetadata().getResourceVersion();
+        String previousResourceVersion = shard == null ? null : shard.getResourceVersion();
+        if (!secretsInformer.awaitResourceVersion(secretName, resourceVersion, previousResourceVersion,
+                informerWriteWaitTimeout)) {
+            log.warn("Secrets informer has not observed version {} of secret {} in {}",
+                    resourceVersion, secretName, informerWriteWaitTimeout);
+        }
+    }
+
+    private boolean isSecretsInformerSynced() {
+        return secretsInformer != null && secretsInformer.hasSynced();
+    }
+
+    private SecretEntity updateVariablesCache(V1Secret secret) {
+        return updateVariablesCache(secret.getMetadata().getName(), KubeOperator.getSecretDataKeys(secret),
+                secret.getMetadata().getResourceVersion(), KubeOperator.getSecretDataSize(secret));
+    }
+
+    private SecretEntity updateVariablesCache(String secretName, Set<String> variablesNames) {
+        return updateVariablesCache(secretName, variablesNames, null, 0);
+    }
+
+    /**
+     * Only variables names are cached, values are decoded transiently on write paths
+     */
+    private SecretEntity updateVariablesCache(String secretName, Set<String> variablesNames,
+                                              @Nullable String resourceVersion, long dataSize) {
+        SecretEntity secret = SecretEntity.builder()
                 .secretName(secretName)
-                .variables(new ConcurrentHashMap<>(variables))
-                .build());
+                .resourceVersion(resourceVersion)
+                .dataSize(dataSize)
+                .variablesNames(Collections.unmodifiableSet(variablesNames))
+                .build();
+        securedVariablesSecrets.put(secretName, secret);
+        return secret;
     }
 
     private String resolveSecretName(@Nullable String secretName) {
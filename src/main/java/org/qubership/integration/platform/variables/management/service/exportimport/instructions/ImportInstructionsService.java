@@ -19,6 +19,7 @@
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
+import org.qubership.integration.platform.variables.management.consul.ConsulConsistencyMode;
 import org.qubership.integration.platform.variables.management.consul.ConsulService;
 import org.qubership.integration.platform.variables.management.model.exportimport.instructions.*;
 import org.qubership.integration.platform.variables.management.persistence.configs.entity.actionlog.ActionLog;
@@ -36,6 +37,7 @@
 import org.qubership.integration.platform.variables.management.validation.EntityValidator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
@@ -58,6 +60,9 @@ public class ImportInstructionsService {
     private final EntityValidator entityValidator;
     private final ActionsLogService actionsLogService;
 
+    @Value("${consul.consistency.import-instructions}")
+    private ConsulConsistencyMode importInstructionsConsistency;
+
     @Autowired
     public ImportInstructionsService(
             @Qualifier("yamlMapper") YAMLMapper yamlMapper,
@@ -208,10 +213,10 @@ private List<ImportInstructionsExecutionResult> performVariableDeleteInstruction
             return Collections.emptyList();
         }
 
-        Map<String, String> existingVariables = consulService.getAllCommonVariables();
+        Set<String> existingVariablesNames = consulService.getCommonVariablesNames(importInstructionsConsistency);
         Set<String> deleteIds = instructionsConfig.getCommonVariables().getDelete();
         List<String> filteredDeleteIds = deleteIds.stream()
-                .filter(existingVariables::containsKey)
+                .filter(existingVariablesNames::contains)
                 .collect(Collectors.toList());
         ImportInstructionExecutionStatus executionStatus;
         String errorMessage = null;
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommonVariablesCacheTest {
+    private static final Duration MAX_STALENESS = Duration.ofMinutes(1);
+
+    @Test
+    void freshSnapshotIsAbsentUntilPublished() {
+        CommonVariablesCache cache = new CommonVariablesCache(true, MAX_STALENESS);
+
+        assertThat(cache.getFreshSnapshot()).isNull();
+
+        cache.publish(new CommonVariablesSnapshot(10, Map.of("a", "1")));
+
+        assertThat(cache.getFreshSnapshot()).isNotNull();
+        assertThat(cache.getFreshSnapshot().getVariables()).containsExactlyEntriesOf(Map.of("a", "1"));
+    }
+
+    @Test
+    void disabledCacheHasNoFreshSnapshot() {
+        CommonVariablesCache cache = new CommonVariablesCache(false, MAX_STALENESS);
+
+        cache.publish(new CommonVariablesSnapshot(10, Map.of("a", "1")));
+
+        assertThat(cache.getFreshSnapshot()).isNull();
+        assertThat(cache.getSnapshot()).isNotNull();
+    }
+
+    @Test
+    void unhealthyCacheHasNoFreshSnapshotUntilTouched() {
+        CommonVariablesCache cache = new CommonVariablesCache(true, MAX_STALENESS);
+        cache.publish(new CommonVariablesSnapshot(10, Map.of("a", "1")));
+
+        cache.markUnhealthy();
+        assertThat(cache.getFreshSnapshot()).isNull();
+
+        cache.touch();
+        assertThat(cache.getFreshSnapshot()).isNotNull();
+    }
+
+    @Test
+    void staleSnapshotIsNotFresh() throws InterruptedException {
+        CommonVariablesCache cache = new CommonVariablesCache(true, Duration.ofMillis(1));
+        cache.publish(new CommonVariablesSnapshot(10, Map.of("a", "1")));
+
+        Thread.sleep(5);
+
+        assertThat(cache.getFreshSnapshot()).isNull();
+    }
+
+    @Test
+    void localWritesAreAppliedToSnapshot() {
+        CommonVariablesCache cache = new CommonVariablesCache(true, MAX_STALENESS);
+        cache.publish(new CommonVariablesSnapshot(10, Map.of("a", "1", "b", "2")));
+
+        cache.applyUpdates(Map.of("a", "updated", "c", "3"));
+        cache.applyDeletes(List.of("b"));
+
+        assertThat(cache.getFreshSnapshot().getVariables())
+                .containsExactlyInAnyOrderEntriesOf(Map.of("a", "updated", "c", "3"));
+    }
+
+    @Test
+    void localWritesAreIgnoredWithoutSnapshot() {
+        CommonVariablesCache cache = new CommonVariablesCache(true, MAX_STALENESS);
+
+        cache.applyUpdates(Map.of("a", "1"));
+        cache.applyDeletes(List.of("b"));
+
+        assertThat(cache.getSnapshot()).isNull();
+    }
+}
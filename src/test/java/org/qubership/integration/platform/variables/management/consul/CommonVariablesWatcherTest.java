@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CommonVariablesWatcherTest {
+    private static final long VERIFY_TIMEOUT_MILLIS = 5000;
+
+    /**
+     * Results of the blocking queries in the order of calls, a query waits until its result is added
+     */
+    private final BlockingQueue<Object> results = new LinkedBlockingQueue<>();
+    private final CommonVariablesCache cache = new CommonVariablesCache(true, Duration.ofMinutes(1));
+    private ConsulService consulService;
+    private CommonVariablesWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws KVNotFoundException {
+        consulService = mock(ConsulService.class);
+        when(consulService.waitForCommonVariablesChanges(anyLong(), anyString())).thenAnswer(invocation -> {
+            Object result = results.take();
+            if (result instanceof Exception e) {
+                throw e;
+            }
+            return result;
+        });
+        watcher = new CommonVariablesWatcher(consulService, cache, Duration.ofSeconds(30), Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void stopWatcher() {
+        watcher.stop();
+    }
+
+    @Test
+    void publishesChangesAndBlocksOnReturnedIndex() throws KVNotFoundException {
+        results.add(Pair.of(5L, Map.of("a", "1")));
+        results.add(Pair.of(7L, Map.of("a", "2")));
+
+        watcher.start();
+
+        verifyQuery(7L, 1);
+        verify(consulService).waitForCommonVariablesChanges(eq(0L), anyString());
+        verify(consulService).waitForCommonVariablesChanges(eq(5L), anyString());
+        assertThat(cache.getFreshSnapshot().getIndex()).isEqualTo(7L);
+        assertThat(cache.getFreshSnapshot().getVariables()).containsExactlyEntriesOf(Map.of("a", "2"));
+    }
+
+    @Test
+    void unchangedIndexKeepsLocalWrites() throws KVNotFoundException {
+        results.add(Pair.of(5L, Map.of("a", "1")));
+        watcher.start();
+        verifyQuery(5L, 1);
+
+        cache.applyUpdates(Map.of("a", "local"));
+        results.add(Pair.of(5L, Map.of("a", "1")));
+
+        verifyQuery(5L, 2);
+        assertThat(cache.getFreshSnapshot().getVariables()).containsExactlyEntriesOf(Map.of("a", "local"));
+    }
+
+    @Test
+    void missingPrefixIsPublishedAsEmptySnapshot() throws KVNotFoundException {
+        results.add(Pair.of(5L, Map.of("a", "1")));
+        results.add(new KVNotFoundException("KV not present in consul"));
+        watcher.start();
+
+        verifyQuery(0L, 2);
+        assertThat(cache.getFreshSnapshot().getVariables()).isEmpty();
+    }
+
+    @Test
+    void failedQueryMarksCacheUnhealthyAndRestartsFromZeroIndex() throws KVNotFoundException {
+        results.add(Pair.of(5L, Map.of("a", "1")));
+        results.add(new ConsulException("Consul is unavailable"));
+        watcher.start();
+
+        verifyQuery(0L, 2);
+        assertThat(cache.getFreshSnapshot()).isNull();
+
+        results.add(Pair.of(6L, Collections.emptyMap()));
+
+        verifyQuery(6L, 1);
+        assertThat(cache.getFreshSnapshot().getVariables()).isEmpty();
+    }
+
+    private void verifyQuery(long index, int times) throws KVNotFoundException {
+        verify(consulService, timeout(VERIFY_TIMEOUT_MILLIS).times(times))
+                .waitForCommonVariablesChanges(eq(index), anyString());
+    }
+}
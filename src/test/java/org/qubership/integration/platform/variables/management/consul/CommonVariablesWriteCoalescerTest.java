@@ -0,0 +1,126 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.integration.platform.variables.management.model.consul.KVWriteStatus;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommonVariablesWriteCoalescerTest {
+    private static final Duration RESULT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final List<Map<String, String>> batches = new CopyOnWriteArrayList<>();
+    private CommonVariablesWriteCoalescer coalescer;
+
+    @AfterEach
+    void stopCoalescer() {
+        if (coalescer != null) {
+            coalescer.stop();
+        }
+    }
+
+    @Test
+    void writesSubmittedWithinWindowAreFlushedAsOneBatch() {
+        coalescer = new CommonVariablesWriteCoalescer(recordingWriter(variables -> { }), Duration.ofSeconds(1), 3);
+
+        CompletableFuture<KVWriteStatus> first = coalescer.submit("a", "1");
+        CompletableFuture<KVWriteStatus> second = coalescer.submit("b", "2");
+        CompletableFuture<KVWriteStatus> third = coalescer.submit("c", "3");
+
+        assertThat(first).succeedsWithin(RESULT_TIMEOUT).isEqualTo(KVWriteStatus.UPDATED);
+        assertThat(second).succeedsWithin(RESULT_TIMEOUT).isEqualTo(KVWriteStatus.UPDATED);
+        assertThat(third).succeedsWithin(RESULT_TIMEOUT).isEqualTo(KVWriteStatus.UPDATED);
+        assertThat(batches).containsExactly(Map.of("a", "1", "b", "2", "c", "3"));
+    }
+
+    @Test
+    void writesOfSameKeyGoToSeparateBatchesInSubmissionOrder() {
+        coalescer = new CommonVariablesWriteCoalescer(recordingWriter(variables -> { }), Duration.ofMillis(100), 10);
+
+        CompletableFuture<KVWriteStatus> first = coalescer.submit("a", "1");
+        CompletableFuture<KVWriteStatus> second = coalescer.submit("a", "2");
+
+        assertThat(first).succeedsWithin(RESULT_TIMEOUT);
+        assertThat(second).succeedsWithin(RESULT_TIMEOUT);
+        assertThat(batches).containsExactly(Map.of("a", "1"), Map.of("a", "2"));
+    }
+
+    @Test
+    void failedBatchIsRepeatedOneByOneAndFailsOnlyItsOwnWrite() {
+        coalescer = new CommonVariablesWriteCoalescer(recordingWriter(variables -> {
+            if (variables.containsKey("bad")) {
+                throw new ConsulException("Invalid variable");
+            }
+        }), Duration.ofSeconds(1), 2);
+
+        CompletableFuture<KVWriteStatus> good = coalescer.submit("good", "1");
+        CompletableFuture<KVWriteStatus> bad = coalescer.submit("bad", "2");
+
+        assertThat(good).succeedsWithin(RESULT_TIMEOUT).isEqualTo(KVWriteStatus.UPDATED);
+        assertThat(bad).failsWithin(RESULT_TIMEOUT)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(ConsulException.class);
+        assertThat(batches).containsExactly(Map.of("good", "1", "bad", "2"), Map.of("good", "1"), Map.of("bad", "2"));
+    }
+
+    @Test
+    void stopCompletesPendingWritesExceptionally() {
+        coalescer = new CommonVariablesWriteCoalescer(recordingWriter(variables -> { }), Duration.ofMinutes(1), 10);
+
+        CompletableFuture<KVWriteStatus> pending = coalescer.submit("a", "1");
+        coalescer.stop();
+
+        assertThat(pending).failsWithin(RESULT_TIMEOUT)
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(ConsulException.class);
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    void submitAfterStopIsRejected() {
+        coalescer = new CommonVariablesWriteCoalescer(recordingWriter(variables -> { }), Duration.ofMillis(10), 10);
+        coalescer.stop();
+
+        assertThat(coalescer.submit("a", "1")).isCompletedExceptionally();
+    }
+
+    /**
+     * Records each batch and reports all its variables as updated
+     */
+    private Function<Map<String, String>, Map<String, KVWriteStatus>> recordingWriter(
+            Consumer<Map<String, String>> behavior) {
+        return variables -> {
+            batches.add(Map.copyOf(variables));
+            behavior.accept(variables);
+            Map<String, KVWriteStatus> statuses = new HashMap<>();
+            variables.keySet().forEach(key -> statuses.put(key, KVWriteStatus.UPDATED));
+            return statuses;
+        };
+    }
+}
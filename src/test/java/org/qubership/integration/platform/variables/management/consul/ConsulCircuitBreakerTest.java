@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsulCircuitBreakerTest {
+    private static final long LONG_OPEN_DURATION = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    void staysClosedBelowFailureThreshold() {
+        ConsulCircuitBreaker breaker = new ConsulCircuitBreaker(3, LONG_OPEN_DURATION);
+
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(ConsulCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void successResetsConsecutiveFailures() {
+        ConsulCircuitBreaker breaker = new ConsulCircuitBreaker(3, LONG_OPEN_DURATION);
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(ConsulCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void opensAtThresholdAndRejectsCalls() {
+        ConsulCircuitBreaker breaker = new ConsulCircuitBreaker(3, LONG_OPEN_DURATION);
+
+        failTimes(breaker, 3);
+
+        assertThat(breaker.getState()).isEqualTo(ConsulCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void letsSingleProbeThroughAfterOpenDuration() {
+        ConsulCircuitBreaker breaker = new ConsulCircuitBreaker(1, 0);
+        breaker.onFailure();
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(ConsulCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void successfulProbeClosesBreaker() {
+        ConsulCircuitBreaker breaker = new ConsulCircuitBreaker(1, 0);
+        breaker.onFailure();
+        breaker.tryAcquirePermission();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(ConsulCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void failedProbeReopensBreaker() {
+        ConsulCircuitBreaker breaker = new ConsulCircuitBreaker(3, 0);
+        failTimes(breaker, 3);
+        breaker.tryAcquirePermission();
+
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(ConsulCircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void ignoredProbeOutcomeReleasesPermission() {
+        ConsulCircuitBreaker breaker = new ConsulCircuitBreaker(1, 0);
+        breaker.onFailure();
+        breaker.tryAcquirePermission();
+
+        breaker.onIgnored();
+
+        assertThat(breaker.getState()).isEqualTo(ConsulCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    private static void failTimes(ConsulCircuitBreaker breaker, int failures) {
+        for (int i = 0; i < failures; i++) {
+            breaker.onFailure();
+        }
+    }
+}
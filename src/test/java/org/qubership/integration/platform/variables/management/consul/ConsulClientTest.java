@@ -0,0 +1,117 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ConsulClientTest {
+    private static final String CONSUL_URL = "http://consul:8500";
+    private static final String PREFIX = "/config/test/common-variables";
+
+    private MockRestServiceServer server;
+    private ConsulClient client;
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate restTemplate = new RestTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+
+        ConsulResilienceExecutor resilienceExecutor = mock(ConsulResilienceExecutor.class);
+        when(resilienceExecutor.execute(any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+        client = new ConsulClient(restTemplate, CONSUL_URL, 1, 64, DataSize.ofKilobytes(512),
+                resilienceExecutor, new ConsulMetrics(new SimpleMeterRegistry()), asyncExecutor);
+        ReflectionTestUtils.setField(client, "consulToken", "token");
+        ReflectionTestUtils.setField(client, "maxStaleness", Duration.ofSeconds(5));
+    }
+
+    @Test
+    void listsFirstLevelKeyNamesOnly() throws KVNotFoundException {
+        server.expect(requestTo(startsWith(CONSUL_URL + "/v1/kv" + PREFIX + "/?keys")))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("[\"config/test/common-variables/a\","
+                        + "\"config/test/common-variables/b\","
+                        + "\"config/test/common-variables/nested/\"]", MediaType.APPLICATION_JSON));
+
+        assertThat(client.getL1Keys(PREFIX)).containsExactly("a", "b");
+        server.verify();
+    }
+
+    @Test
+    void absentPrefixKeysAreNotFound() {
+        server.expect(requestTo(startsWith(CONSUL_URL + "/v1/kv" + PREFIX + "/?keys")))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        assertThatThrownBy(() -> client.getL1Keys(PREFIX)).isInstanceOf(KVNotFoundException.class);
+    }
+
+    @Test
+    void blockingQueryReturnsConsulIndexAndDecodedValues() throws KVNotFoundException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ConsulClient.CONSUL_INDEX_HEADER, "42");
+        server.expect(requestTo(startsWith(CONSUL_URL + "/v1/kv" + PREFIX + "?recurse=true&index=41")))
+                .andRespond(withSuccess("[{\"Key\":\"config/test/common-variables/a\",\"Value\":\""
+                        + Base64.getEncoder().encodeToString("1".getBytes(StandardCharsets.UTF_8)) + "\"}]",
+                        MediaType.APPLICATION_JSON).headers(headers));
+
+        Pair<Long, Map<String, String>> result = client.waitForL1KVChanges(PREFIX, 41, "30s");
+
+        assertThat(result.getLeft()).isEqualTo(42L);
+        assertThat(result.getRight()).containsExactlyEntriesOf(Map.of("a", "1"));
+    }
+
+    @Test
+    void blockingQueryOfAbsentPrefixIsNotFound() {
+        server.expect(requestTo(startsWith(CONSUL_URL + "/v1/kv" + PREFIX + "?recurse=true")))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+
+        assertThatThrownBy(() -> client.waitForL1KVChanges(PREFIX, 41, "30s"))
+                .isInstanceOf(KVNotFoundException.class);
+    }
+}
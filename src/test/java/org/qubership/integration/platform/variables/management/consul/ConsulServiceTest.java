@@ -0,0 +1,146 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.integration.platform.variables.management.model.consul.KVWriteStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConsulServiceTest {
+    private static final String KEY_A = "config/test/common-variables/a";
+    private static final String KEY_B = "config/test/common-variables/b";
+
+    private final ConsulClient client = mock(ConsulClient.class);
+    private final CommonVariablesCache cache = new CommonVariablesCache(true, Duration.ofMinutes(1));
+    private final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private ConsulService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ConsulService(client, cache, asyncExecutor);
+        ReflectionTestUtils.setField(service, "keyPrefix", "/config");
+        ReflectionTestUtils.setField(service, "keyEngineConfigRoot", "/test");
+        ReflectionTestUtils.setField(service, "keyCommonVariablesV2", "/common-variables");
+        ReflectionTestUtils.setField(service, "casMaxAttempts", 3);
+        ReflectionTestUtils.setField(service, "readConsistency", ConsulConsistencyMode.DEFAULT);
+        ReflectionTestUtils.setField(service, "listConsistency", ConsulConsistencyMode.DEFAULT);
+    }
+
+    @AfterEach
+    void shutdownExecutor() {
+        asyncExecutor.shutdownNow();
+    }
+
+    @Test
+    void upsertWritesVariablesWithTheirModifyIndexes() {
+        when(client.getModifyIndexesInTransaction(Set.of(KEY_A, KEY_B))).thenReturn(Map.of(KEY_A, 10L));
+        cache.publish(new CommonVariablesSnapshot(10, Map.of("a", "0")));
+
+        Map<String, KVWriteStatus> statuses = service.upsertCommonVariables(Map.of("a", "1", "b", "2"));
+
+        verify(client).casKVsInTransaction(Map.of(KEY_A, "1", KEY_B, "2"), Map.of(KEY_A, 10L));
+        assertThat(statuses).containsExactlyInAnyOrderEntriesOf(
+                Map.of("a", KVWriteStatus.UPDATED, "b", KVWriteStatus.CREATED));
+        assertThat(cache.getFreshSnapshot().getVariables())
+                .containsExactlyInAnyOrderEntriesOf(Map.of("a", "1", "b", "2"));
+    }
+
+    @Test
+    void upsertRetriesOnlyConflictedVariables() {
+        when(client.getModifyIndexesInTransaction(Set.of(KEY_A, KEY_B))).thenReturn(Map.of(KEY_A, 10L));
+        when(client.getModifyIndexesInTransaction(Set.of(KEY_B))).thenReturn(Map.of(KEY_B, 12L));
+        doThrow(new TxnConflictException(List.of(KEY_B), null))
+                .when(client).casKVsInTransaction(Map.of(KEY_A, "1", KEY_B, "2"), Map.of(KEY_A, 10L));
+
+        Map<String, KVWriteStatus> statuses = service.upsertCommonVariables(Map.of("a", "1", "b", "2"));
+
+        verify(client).casKVsInTransaction(Map.of(KEY_B, "2"), Map.of(KEY_B, 12L));
+        assertThat(statuses).containsExactlyInAnyOrderEntriesOf(
+                Map.of("a", KVWriteStatus.UPDATED, "b", KVWriteStatus.UPDATED));
+    }
+
+    @Test
+    void upsertFailsWhenConflictsExceedMaxAttempts() {
+        when(client.getModifyIndexesInTransaction(Set.of(KEY_A))).thenReturn(Map.of(KEY_A, 10L));
+        doThrow(new TxnConflictException("Consul txn conflict"))
+                .when(client).casKVsInTransaction(anyMap(), anyMap());
+
+        assertThatThrownBy(() -> service.upsertCommonVariables(Map.of("a", "1")))
+                .isInstanceOf(TxnConflictException.class);
+        verify(client, times(3)).casKVsInTransaction(anyMap(), anyMap());
+    }
+
+    @Test
+    void asyncReadIsCompletedFromFreshSnapshotWithoutConsulCall() {
+        cache.publish(new CommonVariablesSnapshot(10, Map.of("a", "1", "b", "2")));
+
+        CompletableFuture<Map<String, String>> future = service.getCommonVariablesAsync(List.of("a"));
+
+        assertThat(future).isCompletedWithValue(Map.of("a", "1"));
+        verify(client, never()).getKVsInTransaction(anyList(), any());
+    }
+
+    @Test
+    void asyncWriteRunsOnVirtualThread() {
+        AtomicBoolean virtualThread = new AtomicBoolean();
+        when(client.getModifyIndexesInTransaction(Set.of(KEY_A))).thenAnswer(invocation -> {
+            virtualThread.set(Thread.currentThread().isVirtual());
+            return Map.of();
+        });
+
+        assertThat(service.upsertCommonVariablesAsync(Map.of("a", "1")))
+                .succeedsWithin(Duration.ofSeconds(5))
+                .isEqualTo(Map.of("a", KVWriteStatus.CREATED));
+        assertThat(virtualThread).isTrue();
+    }
+
+    @Test
+    void asyncWriteFailureCompletesFutureExceptionally() {
+        doThrow(new ConsulUnavailableException("Consul is unavailable"))
+                .when(client).deleteKVsInTransaction(List.of(KEY_A));
+
+        assertThatThrownBy(() -> service.deleteCommonVariablesAsync(List.of("a")).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(ConsulUnavailableException.class);
+        verify(client).deleteKVsInTransaction(eq(List.of(KEY_A)));
+    }
+}
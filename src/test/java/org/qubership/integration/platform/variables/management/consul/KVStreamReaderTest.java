@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KVStreamReaderTest {
+    private static final String BASE_PATH = "config/test/common-variables/";
+
+    @Test
+    void decodesValuesOfFirstLevelKeys() throws IOException {
+        String body = "[" + entry("config/test/common-variables/a", "1") + ","
+                + entry("config/test/common-variables/b", "second value") + "]";
+
+        assertThat(KVStreamReader.readL1Values(json(body), BASE_PATH))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("a", "1", "b", "second value"));
+    }
+
+    @Test
+    void skipsNestedKeysFolderAndOtherPrefixes() throws IOException {
+        String body = "[" + entry("config/test/common-variables/", null) + ","
+                + entry("config/test/common-variables/nested/key", "nested") + ","
+                + entry("config/test/common-variables-v1/a", "other prefix") + ","
+                + entry("config/test/common-variables/a", "1") + "]";
+
+        assertThat(KVStreamReader.readL1Values(json(body), BASE_PATH))
+                .containsExactlyEntriesOf(Map.of("a", "1"));
+    }
+
+    @Test
+    void mapsNullValueToEmptyString() throws IOException {
+        String body = "[" + entry("config/test/common-variables/a", null) + "]";
+
+        assertThat(KVStreamReader.readL1Values(json(body), BASE_PATH))
+                .containsExactlyEntriesOf(Map.of("a", ""));
+    }
+
+    @Test
+    void decodesValueGoingBeforeKey() throws IOException {
+        String body = "[{\"Value\":\"" + encode("1") + "\",\"Flags\":0,"
+                + "\"Key\":\"config/test/common-variables/a\",\"ModifyIndex\":10}]";
+
+        assertThat(KVStreamReader.readL1Values(json(body), BASE_PATH))
+                .containsExactlyEntriesOf(Map.of("a", "1"));
+    }
+
+    @Test
+    void decodesValuesAsUtf8() throws IOException {
+        String body = "[" + entry("config/test/common-variables/a", "значение €") + "]";
+
+        assertThat(KVStreamReader.readL1Values(json(body), BASE_PATH))
+                .containsExactlyEntriesOf(Map.of("a", "значение €"));
+    }
+
+    @Test
+    void emptyOrNullBodyIsEmptyResult() throws IOException {
+        assertThat(KVStreamReader.readL1Values(json(""), BASE_PATH)).isEmpty();
+        assertThat(KVStreamReader.readL1Values(json("null"), BASE_PATH)).isEmpty();
+        assertThat(KVStreamReader.readL1Values(json("[]"), BASE_PATH)).isEmpty();
+    }
+
+    @Test
+    void bodyOtherThanArrayIsRejected() {
+        assertThatThrownBy(() -> KVStreamReader.readL1Values(json("{\"Key\":\"a\"}"), BASE_PATH))
+                .isInstanceOf(JsonParseException.class);
+    }
+
+    private static String entry(String key, String value) {
+        return "{\"LockIndex\":0,\"Key\":\"" + key + "\",\"Flags\":0,"
+                + "\"Value\":" + (value == null ? "null" : "\"" + encode(value) + "\"")
+                + ",\"CreateIndex\":5,\"ModifyIndex\":10}";
+    }
+
+    private static String encode(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.consul;
+
+import org.junit.jupiter.api.Test;
+import org.qubership.integration.platform.variables.management.model.consul.txn.request.TxnKVRequest;
+import org.qubership.integration.platform.variables.management.model.consul.txn.request.TxnRequest;
+import org.qubership.integration.platform.variables.management.model.consul.txn.request.TxnVerb;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TxnChunkPlannerTest {
+
+    @Test
+    void planKeepsAllOperationsInOneChunkWithinLimits() {
+        TxnChunkPlanner planner = new TxnChunkPlanner(64, 512 * 1024);
+        List<TxnRequest> requests = requests(10, "value");
+
+        List<List<TxnRequest>> chunks = planner.plan(requests);
+
+        assertThat(chunks).containsExactly(requests);
+    }
+
+    @Test
+    void planSplitsByOperationsCountInOrder() {
+        TxnChunkPlanner planner = new TxnChunkPlanner(4, 512 * 1024);
+        List<TxnRequest> requests = requests(10, "value");
+
+        List<List<TxnRequest>> chunks = planner.plan(requests);
+
+        assertThat(chunks).containsExactly(requests.subList(0, 4), requests.subList(4, 8), requests.subList(8, 10));
+    }
+
+    @Test
+    void planSplitsByPayloadSize() {
+        List<TxnRequest> requests = requests(6, "x".repeat(100));
+        long twoOperationsSize = TxnChunkPlanner.estimateSize(requests.subList(0, 2));
+        TxnChunkPlanner planner = new TxnChunkPlanner(64, twoOperationsSize);
+
+        List<List<TxnRequest>> chunks = planner.plan(requests);
+
+        assertThat(chunks).hasSize(3).allSatisfy(chunk -> {
+            assertThat(chunk).hasSize(2);
+            assertThat(TxnChunkPlanner.estimateSize(chunk)).isLessThanOrEqualTo(twoOperationsSize);
+        });
+    }
+
+    @Test
+    void planPutsOversizedOperationIntoItsOwnChunk() {
+        TxnRequest small = request("small", "value");
+        TxnRequest large = request("large", "x".repeat(1000));
+        TxnChunkPlanner planner = new TxnChunkPlanner(64, TxnChunkPlanner.estimateSize(List.of(small, small)));
+
+        List<List<TxnRequest>> chunks = planner.plan(List.of(small, large, small));
+
+        assertThat(chunks).containsExactly(List.of(small), List.of(large), List.of(small));
+    }
+
+    @Test
+    void planOfNoOperationsIsEmpty() {
+        assertThat(new TxnChunkPlanner(64, 512 * 1024).plan(List.of())).isEmpty();
+    }
+
+    @Test
+    void onTooLargeHalvesOperationsLimit() {
+        TxnChunkPlanner planner = new TxnChunkPlanner(64, 512 * 1024);
+        List<TxnRequest> requests = requests(8, "value");
+
+        planner.onTooLarge(requests, true);
+
+        assertThat(planner.plan(requests)).hasSize(2).allSatisfy(chunk -> assertThat(chunk).hasSize(4));
+    }
+
+    @Test
+    void onTooLargeHalvesPayloadLimit() {
+        TxnChunkPlanner planner = new TxnChunkPlanner(64, 512 * 1024);
+        List<TxnRequest> requests = requests(8, "value");
+
+        planner.onTooLarge(requests, false);
+
+        long halfSize = TxnChunkPlanner.estimateSize(requests) / 2;
+        assertThat(planner.plan(requests)).hasSizeGreaterThan(1).allSatisfy(chunk ->
+                assertThat(TxnChunkPlanner.estimateSize(chunk)).isLessThanOrEqualTo(halfSize));
+    }
+
+    @Test
+    void onTooLargeDoesNotRaiseLowerLimit() {
+        TxnChunkPlanner planner = new TxnChunkPlanner(2, 512 * 1024);
+        List<TxnRequest> requests = requests(8, "value");
+
+        planner.onTooLarge(requests, true);
+
+        assertThat(planner.plan(requests)).hasSize(4);
+    }
+
+    @Test
+    void estimateSizeCountsKeyAndEncodedValue() {
+        TxnRequest withoutValue = new TxnRequest(TxnKVRequest.builder().verb(TxnVerb.GET).key("key").build());
+        TxnRequest withValue = request("key", "value");
+
+        assertThat(TxnChunkPlanner.estimateSize(withValue) - TxnChunkPlanner.estimateSize(withoutValue))
+                .isEqualTo(withValue.getKv().getValue().length() + 2);
+        assertThat(TxnChunkPlanner.estimateSize(List.of(withValue, withoutValue)))
+                .isEqualTo(2 + TxnChunkPlanner.estimateSize(withValue) + TxnChunkPlanner.estimateSize(withoutValue));
+    }
+
+    private static List<TxnRequest> requests(int count, String value) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> request("config/common-variables/variable-" + i, value))
+                .toList();
+    }
+
+    private static TxnRequest request(String key, String value) {
+        return new TxnRequest(new TxnKVRequest(TxnVerb.SET, key, value, null));
+    }
+}
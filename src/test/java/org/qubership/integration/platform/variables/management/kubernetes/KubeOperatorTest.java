@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.kubernetes;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.kubernetes.client.custom.V1Patch;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.ApiResponse;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Secret;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class KubeOperatorTest {
+    private static final String SECRET_NAME = "secured-variables";
+    private static final String RESOURCE_VERSION_TEST_FAILURE = "{\"kind\":\"Status\",\"status\":\"Failure\","
+            + "\"message\":\"the server rejected our request due to an error in our request: "
+            + "testing value /metadata/resourceVersion failed: test failed\",\"code\":422}";
+
+    private ApiClient apiClient;
+    private KubeOperator operator;
+
+    @BeforeEach
+    void setUp() {
+        apiClient = spy(new ApiClient());
+        operator = new KubeOperator(apiClient, "namespace");
+    }
+
+    @Test
+    void updateSecretDataTestsResourceVersionBeforeReplacingValues() throws Exception {
+        V1Secret patched = new V1Secret().metadata(new V1ObjectMeta().name(SECRET_NAME).resourceVersion("2"));
+        doReturn(new ApiResponse<>(200, Collections.emptyMap(), patched)).when(apiClient).execute(any(), any());
+
+        V1Secret result = operator.updateSecretData(SECRET_NAME, Map.of("a", "1"), "1");
+
+        assertThat(result).isSameAs(patched);
+        List<Map<String, Object>> patch = new ObjectMapper().readValue(getSentPatch(), new TypeReference<>() {
+        });
+        assertThat(patch).hasSize(2);
+        assertThat(patch.get(0))
+                .containsEntry("op", "test")
+                .containsEntry("path", "/metadata/resourceVersion")
+                .containsEntry("value", "1");
+        assertThat(patch.get(1))
+                .containsEntry("op", "replace")
+                .containsEntry("path", "/data/a");
+    }
+
+    @Test
+    void failedResourceVersionTestIsConflictWithoutRetry() throws ApiException {
+        doThrow(new ApiException(422, null, RESOURCE_VERSION_TEST_FAILURE)).when(apiClient).execute(any(), any());
+
+        assertThatThrownBy(() -> operator.updateSecretData(SECRET_NAME, Map.of("a", "1"), "1"))
+                .isInstanceOf(KubeApiConflictException.class);
+        verify(apiClient, times(1)).execute(any(), any());
+    }
+
+    @Test
+    void conflictStatusIsConflict() throws ApiException {
+        doThrow(new ApiException(409, null, "Conflict")).when(apiClient).execute(any(), any());
+
+        assertThatThrownBy(() -> operator.removeSecretData(SECRET_NAME, Set.of("a"), "1"))
+                .isInstanceOf(KubeApiConflictException.class);
+    }
+
+    @Test
+    void otherInvalidPatchIsNotConflict() throws ApiException {
+        doThrow(new ApiException(422, null,
+                "{\"message\":\"the server rejected our request: unable to remove nonexistent key: test-variable\"}"))
+                .when(apiClient).execute(any(), any());
+
+        assertThatThrownBy(() -> operator.removeSecretData(SECRET_NAME, Set.of("test-variable"), "1"))
+                .isInstanceOf(KubeApiException.class)
+                .isNotInstanceOf(KubeApiConflictException.class);
+    }
+
+    @Test
+    void patchWithoutResourceVersionIsNotConflict() throws ApiException {
+        doThrow(new ApiException(422, null, RESOURCE_VERSION_TEST_FAILURE)).when(apiClient).execute(any(), any());
+
+        assertThatThrownBy(() -> operator.addSecretData(SECRET_NAME, Map.of("a", "1"), false))
+                .isInstanceOf(KubeApiException.class)
+                .isNotInstanceOf(KubeApiConflictException.class);
+        assertThat(getSentPatch()).doesNotContain("\"op\":\"test\"");
+    }
+
+    @Test
+    void isResourceVersionConflictMatchesResourceVersionTestFailureOnly() {
+        assertThat(KubeOperator.isResourceVersionConflict(new ApiException(409, null, "Conflict"))).isTrue();
+        assertThat(KubeOperator.isResourceVersionConflict(new ApiException(422, null, RESOURCE_VERSION_TEST_FAILURE)))
+                .isTrue();
+        assertThat(KubeOperator.isResourceVersionConflict(new ApiException(422, null, "testing value /data/a failed")))
+                .isFalse();
+        assertThat(KubeOperator.isResourceVersionConflict(new ApiException(422, null, null))).isFalse();
+        assertThat(KubeOperator.isResourceVersionConflict(new ApiException(400, null, RESOURCE_VERSION_TEST_FAILURE)))
+                .isFalse();
+    }
+
+    private String getSentPatch() throws ApiException {
+        ArgumentCaptor<Object> body = ArgumentCaptor.forClass(Object.class);
+        verify(apiClient).buildCall(any(), eq("PATCH"), any(), any(), body.capture(), any(), any(), any(), any(), any());
+        return ((V1Patch) body.getValue()).getValue();
+    }
+}
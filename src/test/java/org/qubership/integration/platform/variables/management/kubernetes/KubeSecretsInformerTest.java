@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.kubernetes;
+
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Secret;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KubeSecretsInformerTest {
+    private static final String NAMESPACE = "namespace";
+    private static final String SECRET_NAME = "secured-variables";
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private KubeSecretsInformer secretsInformer;
+    private SharedIndexInformer<V1Secret> informer;
+
+    @BeforeEach
+    void setUp() {
+        // the informer is not started, the test puts secrets to its indexer as a watch event would do
+        secretsInformer = new KubeSecretsInformer(new ApiClient().setReadTimeout(0), NAMESPACE,
+                Pair.of("app", "variables"), Duration.ofMinutes(10));
+        informer = (SharedIndexInformer<V1Secret>) ReflectionTestUtils.getField(secretsInformer, "informer");
+    }
+
+    @Test
+    void returnsImmediatelyWhenWrittenVersionIsCached() {
+        observe("12");
+
+        assertThat(secretsInformer.awaitResourceVersion(SECRET_NAME, "12", "11", TIMEOUT)).isTrue();
+    }
+
+    @Test
+    void waitsUntilWrittenVersionIsObserved() {
+        observe("11");
+
+        CompletableFuture<Boolean> observed = CompletableFuture.supplyAsync(
+                () -> secretsInformer.awaitResourceVersion(SECRET_NAME, "12", "11", TIMEOUT));
+        assertThat(observed).isNotDone();
+
+        observe("12");
+
+        assertThat(observed).succeedsWithin(TIMEOUT).isEqualTo(true);
+    }
+
+    @Test
+    void versionOtherThanPreviousOneIsObserved() {
+        observe("13");
+
+        assertThat(secretsInformer.awaitResourceVersion(SECRET_NAME, "12", "11", TIMEOUT)).isTrue();
+    }
+
+    @Test
+    void versionsAreNotComparedAsNumbers() {
+        observe("13");
+
+        assertThat(secretsInformer.awaitResourceVersion(SECRET_NAME, "12", null, Duration.ofMillis(50))).isFalse();
+    }
+
+    @Test
+    void timesOutWhenSecretIsNotCached() {
+        long startNanos = System.nanoTime();
+
+        assertThat(secretsInformer.awaitResourceVersion(SECRET_NAME, "12", "11", Duration.ofMillis(50))).isFalse();
+        assertThat(System.nanoTime() - startNanos).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    /**
+     * Puts the secret to the cache and signals the waiting writers
+     */
+    private void observe(String resourceVersion) {
+        V1Secret secret = new V1Secret().metadata(new V1ObjectMeta()
+                .namespace(NAMESPACE)
+                .name(SECRET_NAME)
+                .resourceVersion(resourceVersion));
+        if (informer.getIndexer().getByKey(NAMESPACE + "/" + SECRET_NAME) == null) {
+            informer.getIndexer().add(secret);
+        } else {
+            informer.getIndexer().update(secret);
+        }
+        ReflectionTestUtils.invokeMethod(secretsInformer, "signalChange");
+    }
+}
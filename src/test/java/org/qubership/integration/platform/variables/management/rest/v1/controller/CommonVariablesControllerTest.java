@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.rest.v1.controller;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.integration.platform.variables.management.rest.v1.mapper.CommonVariablesMapper;
+import org.qubership.integration.platform.variables.management.service.CommonVariablesService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CommonVariablesControllerTest {
+    private final CommonVariablesService commonVariablesService = mock(CommonVariablesService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new CommonVariablesController(commonVariablesService, mock(CommonVariablesMapper.class))).build();
+    }
+
+    @Test
+    void listingCarriesETagOfConsulIndex() throws Exception {
+        when(commonVariablesService.getVariablesWithIndex()).thenReturn(Pair.of(42L, Map.of("a", "1")));
+
+        mockMvc.perform(get("/v1/common-variables"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"cv-42\""))
+                .andExpect(jsonPath("$.a").value("1"));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        when(commonVariablesService.getVariablesWithIndex()).thenReturn(Pair.of(42L, Map.of("a", "1")));
+
+        mockMvc.perform(get("/v1/common-variables").header(HttpHeaders.IF_NONE_MATCH, "\"cv-42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void changedIndexIsSentInFull() throws Exception {
+        when(commonVariablesService.getVariablesWithIndex()).thenReturn(Pair.of(43L, Map.of("a", "2")));
+
+        mockMvc.perform(get("/v1/common-variables").header(HttpHeaders.IF_NONE_MATCH, "\"cv-42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"cv-43\""))
+                .andExpect(jsonPath("$.a").value("2"));
+    }
+
+    @Test
+    void unknownIndexIsSentWithoutETag() throws Exception {
+        when(commonVariablesService.getVariablesWithIndex()).thenReturn(Pair.of(0L, Map.of("a", "1")));
+
+        mockMvc.perform(get("/v1/common-variables").header(HttpHeaders.IF_NONE_MATCH, "\"cv-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.a").value("1"));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.rest.v2.controller;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.integration.platform.variables.management.rest.v2.mapper.SecretResponseMapper;
+import org.qubership.integration.platform.variables.management.rest.v2.mapper.SecretResponseMapperImpl;
+import org.qubership.integration.platform.variables.management.service.SecuredVariableService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class SecuredVariableControllerV2Test {
+    private final SecuredVariableService securedVariableService = mock(SecuredVariableService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        SecretResponseMapper secretResponseMapper = new SecretResponseMapperImpl();
+        ReflectionTestUtils.setField(secretResponseMapper, "secretService", securedVariableService);
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new SecuredVariableControllerV2(securedVariableService, secretResponseMapper)).build();
+    }
+
+    @Test
+    void listingCarriesETagOfSecretsVersion() throws Exception {
+        when(securedVariableService.getAllSecretsVariablesNamesWithVersion())
+                .thenReturn(Pair.of("sv-1", Map.of("secret", Set.of("a"))));
+
+        mockMvc.perform(get("/v2/secured-variables"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"sv-1\""))
+                .andExpect(jsonPath("$[0].secretName").value("secret"))
+                .andExpect(jsonPath("$[0].variablesNames[0]").value("a"));
+    }
+
+    @Test
+    void matchingIfNoneMatchIsNotModified() throws Exception {
+        when(securedVariableService.getAllSecretsVariablesNamesWithVersion())
+                .thenReturn(Pair.of("sv-1", Map.of("secret", Set.of("a"))));
+
+        mockMvc.perform(get("/v2/secured-variables").header(HttpHeaders.IF_NONE_MATCH, "\"sv-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void unknownVersionIsSentWithoutETag() throws Exception {
+        when(securedVariableService.getAllSecretsVariablesNamesWithVersion())
+                .thenReturn(Pair.of(null, Map.of("secret", Set.of("a"))));
+
+        mockMvc.perform(get("/v2/secured-variables"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void pageCarriesCursorOfNextPage() throws Exception {
+        when(securedVariableService.getSecretsVariablesNamesPage(2, "current"))
+                .thenReturn(Pair.of(Map.of("secret", Set.of("a")), "next"));
+
+        mockMvc.perform(get("/v2/secured-variables").param("limit", "2").param("cursor", "current"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.secrets[0].secretName").value("secret"))
+                .andExpect(jsonPath("$.cursor").value("next"));
+    }
+
+    @Test
+    void lastPageHasNoCursor() throws Exception {
+        when(securedVariableService.getSecretsVariablesNamesPage(2, null))
+                .thenReturn(Pair.of(Map.of("secret", Set.of("a")), null));
+
+        mockMvc.perform(get("/v2/secured-variables").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.secrets[0].secretName").value("secret"))
+                .andExpect(jsonPath("$.cursor").doesNotExist());
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.service;
+
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Secret;
+import org.junit.jupiter.api.Test;
+import org.qubership.integration.platform.variables.management.kubernetes.KubeOperator;
+import org.qubership.integration.platform.variables.management.model.SecretEntity;
+import org.qubership.integration.platform.variables.management.rest.exception.SecuredVariableTooLargeException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SecretShardsTest {
+    private static final String SECRET_NAME = "secured-variables";
+    private static final String SHARD_1 = SECRET_NAME + "-shard-1";
+
+    @Test
+    void shardNamesMapToLogicalSecretAndIndex() {
+        assertThat(SecretShards.getShardName(SECRET_NAME, 0)).isEqualTo(SECRET_NAME);
+        assertThat(SecretShards.getShardName(SECRET_NAME, 2)).isEqualTo(SECRET_NAME + "-shard-2");
+        assertThat(SecretShards.getLogicalSecretName(SHARD_1)).isEqualTo(SECRET_NAME);
+        assertThat(SecretShards.getShardIndex(SHARD_1)).isEqualTo(1);
+        assertThat(SecretShards.getShardIndex(SECRET_NAME)).isZero();
+        assertThat(SecretShards.isShardOf(SHARD_1, SECRET_NAME)).isTrue();
+        assertThat(SecretShards.isShardOf("other-shard-1", SECRET_NAME)).isFalse();
+    }
+
+    @Test
+    void routeKeepsExistingVariableInItsShard() {
+        Map<String, V1Secret> secrets = secrets(secret(SECRET_NAME, Map.of("a", "1")), secret(SHARD_1, Map.of("b", "2")));
+
+        Map<String, Map<String, String>> routed = SecretShards.route(SECRET_NAME, shards(secrets), secrets,
+                Map.of("b", "3"), 1000);
+
+        assertThat(routed).containsExactly(Map.entry(SHARD_1, Map.of("b", "3")));
+    }
+
+    @Test
+    void routePlacesNewVariableIntoFirstShardWithRoom() {
+        Map<String, V1Secret> secrets = secrets(secret(SECRET_NAME, Map.of("a", "x".repeat(60))),
+                secret(SHARD_1, Map.of("b", "2")));
+        long maxShardSize = 100;
+
+        Map<String, Map<String, String>> routed = SecretShards.route(SECRET_NAME, shards(secrets), secrets,
+                Map.of("c", "x".repeat(30)), maxShardSize);
+
+        assertThat(routed).containsOnlyKeys(SHARD_1);
+    }
+
+    @Test
+    void routeAppendsNewShardWhenNoShardHasRoom() {
+        Map<String, V1Secret> secrets = secrets(secret(SECRET_NAME, Map.of("a", "x".repeat(60))));
+
+        Map<String, String> variables = new LinkedHashMap<>();
+        variables.put("b", "x".repeat(60));
+        variables.put("c", "x".repeat(60));
+        Map<String, Map<String, String>> routed = SecretShards.route(SECRET_NAME, shards(secrets), secrets,
+                variables, 100);
+
+        assertThat(routed).containsExactly(
+                Map.entry(SHARD_1, Map.of("b", "x".repeat(60))),
+                Map.entry(SECRET_NAME + "-shard-2", Map.of("c", "x".repeat(60))));
+    }
+
+    @Test
+    void routeAcceptsUpdateThatFitsAfterReplacingOldValue() {
+        Map<String, V1Secret> secrets = secrets(secret(SECRET_NAME, Map.of("a", "x".repeat(60))));
+        long maxShardSize = KubeOperator.getSecretDataSize(secrets.get(SECRET_NAME));
+
+        Map<String, Map<String, String>> routed = SecretShards.route(SECRET_NAME, shards(secrets), secrets,
+                Map.of("a", "y".repeat(60)), maxShardSize);
+
+        assertThat(routed).containsExactly(Map.entry(SECRET_NAME, Map.of("a", "y".repeat(60))));
+    }
+
+    @Test
+    void routeRejectsUpdateThatOverflowsItsShard() {
+        Map<String, V1Secret> secrets = secrets(secret(SECRET_NAME, Map.of("a", "x".repeat(60))),
+                secret(SHARD_1, Map.of()));
+
+        assertThatThrownBy(() -> SecretShards.route(SECRET_NAME, shards(secrets), secrets,
+                Map.of("a", "x".repeat(120)), 100))
+                .isInstanceOf(SecuredVariableTooLargeException.class)
+                .hasMessageContaining("a")
+                .hasMessageContaining(SECRET_NAME);
+    }
+
+    @Test
+    void routeRejectsNewVariableLargerThanShard() {
+        Map<String, V1Secret> secrets = secrets(secret(SECRET_NAME, Map.of()));
+
+        assertThatThrownBy(() -> SecretShards.route(SECRET_NAME, shards(secrets), secrets,
+                Map.of("a", "x".repeat(200)), 100))
+                .isInstanceOf(SecuredVariableTooLargeException.class);
+    }
+
+    @Test
+    void routeExistingGroupsNamesByOwnerShard() {
+        Map<String, V1Secret> secrets = secrets(secret(SECRET_NAME, Map.of("a", "1")), secret(SHARD_1, Map.of("b", "2")));
+
+        Map<String, Set<String>> routed = SecretShards.routeExisting(SECRET_NAME, shards(secrets), Set.of("a", "b"));
+
+        assertThat(routed).containsOnly(Map.entry(SECRET_NAME, Set.of("a")), Map.entry(SHARD_1, Set.of("b")));
+    }
+
+    @Test
+    void routeExistingAssignsMissingNamesToBaseSecret() {
+        Map<String, V1Secret> secrets = secrets(secret(SHARD_1, Map.of("b", "2")));
+
+        Map<String, Set<String>> routed = SecretShards.routeExisting(SECRET_NAME, shards(secrets), Set.of("b", "c"));
+
+        assertThat(routed).containsOnly(Map.entry(SHARD_1, Set.of("b")), Map.entry(SECRET_NAME, Set.of("c")));
+    }
+
+    private static V1Secret secret(String name, Map<String, String> data) {
+        Map<String, byte[]> encodedData = new HashMap<>();
+        data.forEach((key, value) -> encodedData.put(key, value.getBytes(StandardCharsets.UTF_8)));
+        return new V1Secret()
+                .metadata(new V1ObjectMeta().name(name).resourceVersion("1"))
+                .data(encodedData);
+    }
+
+    private static Map<String, V1Secret> secrets(V1Secret... secrets) {
+        Map<String, V1Secret> secretsByName = new LinkedHashMap<>();
+        for (V1Secret secret : secrets) {
+            secretsByName.put(secret.getMetadata().getName(), secret);
+        }
+        return secretsByName;
+    }
+
+    private static List<SecretEntity> shards(Map<String, V1Secret> secrets) {
+        return secrets.values().stream()
+                .map(secret -> SecretEntity.builder()
+                        .secretName(secret.getMetadata().getName())
+                        .resourceVersion(secret.getMetadata().getResourceVersion())
+                        .dataSize(KubeOperator.getSecretDataSize(secret))
+                        .variablesNames(KubeOperator.getSecretDataKeys(secret))
+                        .build())
+                .toList();
+    }
+}
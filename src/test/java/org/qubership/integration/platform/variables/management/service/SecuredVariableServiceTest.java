@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024-2025 NetCracker Technology Corporation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.qubership.integration.platform.variables.management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Secret;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.qubership.integration.platform.variables.management.kubernetes.KubeOperator;
+import org.qubership.integration.platform.variables.management.kubernetes.KubeSecretsInformer;
+import org.qubership.integration.platform.variables.management.kubernetes.SecretsPage;
+import org.qubership.integration.platform.variables.management.util.DevModeUtil;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SecuredVariableServiceTest {
+    private static final String DEFAULT_SECRET = "secured-variables";
+    private static final Pair<String, String> LABEL = Pair.of("app", SecretService.SECURED_SECRETS_LABEL_VALUE);
+
+    private final KubeOperator operator = mock(KubeOperator.class);
+    private final ExecutorService secretsAsyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private SecuredVariableService service;
+
+    @BeforeEach
+    void setUp() {
+        service = createService(true);
+    }
+
+    @AfterEach
+    void shutdownExecutor() {
+        secretsAsyncExecutor.shutdownNow();
+    }
+
+    @Test
+    void pageMergesShardsOfSecretAndReturnsCursor() {
+        when(operator.listSecretObjectsWithLabel(LABEL, 3, null)).thenReturn(new SecretsPage(List.of(
+                secret("first", "1", Map.of("a", "1")),
+                secret("first-shard-2", "2", Map.of("b", "2")),
+                secret("second", "3", Map.of("c", "3"))), "next"));
+
+        Pair<Map<String, Set<String>>, String> page = service.getSecretsVariablesNamesPage(3, null);
+
+        assertThat(page.getLeft()).containsExactlyInAnyOrderEntriesOf(Map.of(
+                "first", Set.of("a", "b"),
+                "second", Set.of("c")));
+        assertThat(page.getRight()).isEqualTo("next");
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(operator.listSecretObjectsWithLabel(LABEL, 3, "next")).thenReturn(new SecretsPage(List.of(
+                secret("third", "4", Map.of("d", "4"))), null));
+
+        Pair<Map<String, Set<String>>, String> page = service.getSecretsVariablesNamesPage(3, "next");
+
+        assertThat(page.getLeft()).containsExactlyEntriesOf(Map.of("third", Set.of("d")));
+        assertThat(page.getRight()).isNull();
+    }
+
+    @SuppressWarnings("unchecked")
+    private SecuredVariableService createService(boolean shardingEnabled) {
+        ObjectProvider<KubeSecretsInformer> secretsInformerProvider = mock(ObjectProvider.class);
+        return new SecuredVariableService(
+                new YAMLMapper(),
+                new ObjectMapper(),
+                operator,
+                mock(ActionsLogService.class),
+                LABEL.getKey(),
+                DEFAULT_SECRET,
+                mock(DevModeUtil.class),
+                mock(CommonVariablesService.class),
+                new ObjectMapper(),
+                secretsInformerProvider,
+                Duration.ofSeconds(1),
+                shardingEnabled,
+                DataSize.ofKilobytes(900),
+                true,
+                3,
+                secretsAsyncExecutor);
+    }
+
+    private static V1Secret secret(String name, String resourceVersion, Map<String, String> variables) {
+        Map<String, byte[]> data = new HashMap<>();
+        variables.forEach((key, value) -> data.put(key, value.getBytes(StandardCharsets.UTF_8)));
+        return new V1Secret()
+                .metadata(new V1ObjectMeta().name(name).resourceVersion(resourceVersion))
+                .data(data);
+    }
+}